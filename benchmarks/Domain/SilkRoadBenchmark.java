@@ -0,0 +1,196 @@
+package Domain;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mide las operaciones principales de {@link SilkRoad} sobre rutas sin vista
+ * gráfica, para detectar regresiones entre versiones.
+ *
+ * <p>Las operaciones en bloque (colocar o quitar todas las tiendas, mover a
+ * todos los robots) se miden sobre una ruta nueva en cada invocación, de modo
+ * que un costo O(S) por operación se note como un crecimiento cuadrático entre
+ * un tamaño y el siguiente; colocar tiendas entre movimientos cubre el caso
+ * en que el índice de tiendas se consulta después de cada cambio. Los datos
+ * se generan con una semilla fija para que las mediciones sean reproducibles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SilkRoadBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * Tamaños evaluados y las casillas y tenges de las tiendas y robots.
+     */
+    @State(Scope.Benchmark)
+    public static class Sizes {
+        /** Casillas por lado del tablero */
+        @Param({"500", "1000"})
+        public int side;
+        /** Cantidad de tiendas y de robots */
+        @Param({"10000", "100000"})
+        public int count;
+
+        /** Casillas distintas (1-based): las primeras para tiendas y las siguientes para robots */
+        int[] locations;
+        int[] tenges;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(SEED);
+            int cells = side * side;
+            int[] all = new int[cells];
+            for (int i = 0; i < cells; i++) {
+                all[i] = i + 1;
+            }
+            for (int i = 0; i < 2 * count; i++) {
+                int j = i + random.nextInt(cells - i);
+                int tmp = all[i];
+                all[i] = all[j];
+                all[j] = tmp;
+            }
+            locations = Arrays.copyOf(all, 2 * count);
+            tenges = new int[count];
+            for (int i = 0; i < count; i++) {
+                tenges[i] = 1 + random.nextInt(2 * side);
+            }
+        }
+
+        SilkRoad populated() {
+            SilkRoad road = new SilkRoad(side, false);
+            for (int k = 0; k < count; k++) {
+                road.placeStore(locations[k], tenges[k]);
+            }
+            for (int k = count; k < 2 * count; k++) {
+                road.placeRobot(locations[k]);
+            }
+            return road;
+        }
+    }
+
+    /** Ruta vacía, nueva en cada invocación */
+    @State(Scope.Thread)
+    public static class EmptyRoad {
+        SilkRoad road;
+
+        @Setup(Level.Invocation)
+        public void create(Sizes sizes) {
+            road = new SilkRoad(sizes.side, false);
+        }
+    }
+
+    /** Ruta con todas las tiendas y robots, nueva en cada invocación */
+    @State(Scope.Thread)
+    public static class FilledRoad {
+        SilkRoad road;
+
+        @Setup(Level.Invocation)
+        public void create(Sizes sizes) {
+            road = sizes.populated();
+        }
+    }
+
+    /** Ruta con todos los robots y sin tiendas, nueva en cada invocación */
+    @State(Scope.Thread)
+    public static class RobotsOnlyRoad {
+        SilkRoad road;
+
+        @Setup(Level.Invocation)
+        public void create(Sizes sizes) {
+            road = new SilkRoad(sizes.side, false);
+            for (int k = sizes.count; k < 2 * sizes.count; k++) {
+                road.placeRobot(sizes.locations[k]);
+            }
+        }
+    }
+
+    /** Ruta con todas las tiendas y robots que se reutiliza durante toda la medición */
+    @State(Scope.Thread)
+    public static class SharedRoad {
+        SilkRoad road;
+        Random random;
+
+        @Setup(Level.Trial)
+        public void create(Sizes sizes) {
+            road = sizes.populated();
+            random = new Random(SEED);
+        }
+    }
+
+    @Benchmark
+    public SilkRoad placeStores(Sizes sizes, EmptyRoad empty) {
+        for (int k = 0; k < sizes.count; k++) {
+            empty.road.placeStore(sizes.locations[k], sizes.tenges[k]);
+        }
+        return empty.road;
+    }
+
+    @Benchmark
+    public SilkRoad placeRobots(Sizes sizes, EmptyRoad empty) {
+        for (int k = sizes.count; k < 2 * sizes.count; k++) {
+            empty.road.placeRobot(sizes.locations[k]);
+        }
+        return empty.road;
+    }
+
+    @Benchmark
+    public SilkRoad removeStores(Sizes sizes, FilledRoad filled) throws InvalidLocationException {
+        for (int k = 0; k < sizes.count; k++) {
+            filled.road.removeStore(sizes.locations[k]);
+        }
+        return filled.road;
+    }
+
+    /**
+     * Intercala cada tienda colocada con el movimiento de un robot, de modo que
+     * cada consulta del índice de tiendas sigue a una modificación.
+     */
+    @Benchmark
+    public SilkRoad placeStoresBetweenMoves(Sizes sizes, RobotsOnlyRoad robotsOnly) {
+        SilkRoad road = robotsOnly.road;
+        for (int k = 0; k < sizes.count; k++) {
+            road.placeStore(sizes.locations[k], sizes.tenges[k]);
+            Robot robot = road.getRobots().get(k);
+            road.moveRobot(robot.getLocation() + 1, sizes.side);
+        }
+        return road;
+    }
+
+    @Benchmark
+    public int moveRobots(FilledRoad filled) {
+        filled.road.moveRobots();
+        return filled.road.profit();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int moveRobot(Sizes sizes, SharedRoad shared) {
+        Robot robot = shared.road.getRobots().get(shared.random.nextInt(sizes.count));
+        shared.road.moveRobot(robot.getLocation() + 1, shared.random.nextInt(2 * sizes.side) - sizes.side);
+        return shared.road.profit();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void storesAndRobots(SharedRoad shared, Blackhole blackhole) {
+        blackhole.consume(shared.road.stores());
+        blackhole.consume(shared.road.robots());
+    }
+}
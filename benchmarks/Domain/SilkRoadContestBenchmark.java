@@ -0,0 +1,55 @@
+package Domain;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide {@link SilkRoadContest#solve(int[][])} sobre maratones generadas con una
+ * semilla fija, la mitad de los días con un robot y la otra mitad con una tienda.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class SilkRoadContestBenchmark {
+    private static final long SEED = 42;
+
+    /** Días de la maratón */
+    @Param({"10000", "100000"})
+    public int days;
+
+    private int[][] input;
+    private SilkRoadContest contest;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(SEED);
+        input = new int[days][];
+        int maxLocation = days * 4;
+        for (int i = 0; i < days; i++) {
+            int location = 1 + random.nextInt(maxLocation);
+            input[i] = random.nextBoolean()
+                ? new int[]{1, location}
+                : new int[]{2, location, 1 + random.nextInt(100)};
+        }
+        contest = new SilkRoadContest();
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return contest.solve(input);
+    }
+}
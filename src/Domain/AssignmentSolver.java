@@ -0,0 +1,22 @@
+package Domain;
+
+/**
+ * Estrategia para resolver la asignación óptima de robots a tiendas.
+ *
+ * <p>Recibe una matriz de ganancias donde {@code profits[i][j]} es la ganancia
+ * que obtendría el robot {@code i} al desplazarse hasta la tienda {@code j}.
+ * Cada robot visita a lo sumo una tienda, cada tienda es visitada por a lo sumo
+ * un robot y solo se consideran las asignaciones con ganancia positiva.
+ *
+ * <p>Permite intercambiar el algoritmo usado por {@link SilkRoadContest}
+ * sin modificar la lógica de la simulación.
+ */
+public interface AssignmentSolver {
+    /**
+     * Calcula la asignación que maximiza la ganancia total.
+     *
+     * @param profits Matriz de ganancias robot × tienda
+     * @return Para cada robot, el índice de la tienda asignada o -1 si no se mueve
+     */
+    int[] solve(int[][] profits);
+}
@@ -1,6 +1,7 @@
 package Domain;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Implementación de una tienda con capacidad de decisión sobre su ubicación,
@@ -21,9 +22,6 @@ import java.util.Random;
 public class AutonomousStore extends Store {
     /** Color distintivo que representa la naturaleza independiente de la tienda */
     private static final String COLOR = "cyan";
-    /** Generador de números aleatorios para la selección de ubicación */
-    private static Random random = new Random();
-
     /**
      * Crea una nueva tienda autónoma que selecciona su propia ubicación.
      * 
@@ -33,7 +31,21 @@ public class AutonomousStore extends Store {
      * @param isAvailable Predicado que determina si una ubicación está disponible
      */
     public AutonomousStore(int suggestedLocation, int tenges, int boardSize, java.util.function.Predicate<Integer> isAvailable) {
-        super(findAvailableLocation(suggestedLocation, boardSize, isAvailable), tenges);
+        this(suggestedLocation, tenges, boardSize, isAvailable, new SplittableRandom());
+    }
+
+    /**
+     * Crea una tienda autónoma que elige su ubicación con el generador dado.
+     * 
+     * @param suggestedLocation Ubicación sugerida (podría ser ignorada)
+     * @param tenges Cantidad inicial de tenges
+     * @param boardSize Tamaño total del tablero
+     * @param isAvailable Predicado que determina si una ubicación está disponible
+     * @param random Generador de números aleatorios para elegir la ubicación
+     */
+    public AutonomousStore(int suggestedLocation, int tenges, int boardSize,
+                           java.util.function.Predicate<Integer> isAvailable, RandomGenerator random) {
+        super(findAvailableLocation(suggestedLocation, boardSize, isAvailable, random), tenges);
     }
 
     /**
@@ -50,9 +62,11 @@ public class AutonomousStore extends Store {
      * @param suggested Ubicación inicialmente sugerida
      * @param boardSize Tamaño total del tablero
      * @param isAvailable Función que verifica si una ubicación está libre
+     * @param random Generador de números aleatorios
      * @return Ubicación seleccionada para la tienda
      */
-    private static int findAvailableLocation(int suggested, int boardSize, java.util.function.Predicate<Integer> isAvailable) {
+    private static int findAvailableLocation(int suggested, int boardSize, java.util.function.Predicate<Integer> isAvailable,
+                                             RandomGenerator random) {
         // Intentar con la ubicación sugerida primero
         if (isAvailable.test(suggested)) {
             return suggested;
@@ -102,7 +116,7 @@ public class AutonomousStore extends Store {
             collected += tenges;
             tenges = 0;
             timesEmptied++;
-            updateView();
+            stateChanged();
             return robot.collectFromStore(amount);
         }
         return 0;
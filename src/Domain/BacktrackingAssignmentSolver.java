@@ -0,0 +1,61 @@
+package Domain;
+
+import java.util.Arrays;
+
+/**
+ * Resuelve la asignación explorando exhaustivamente todas las combinaciones
+ * de robots y tiendas.
+ *
+ * <p>Su costo es exponencial, por lo que solo es útil en instancias pequeñas.
+ * Se conserva como referencia para verificar los resultados de solucionadores
+ * más eficientes como {@link HungarianAssignmentSolver}.
+ */
+public class BacktrackingAssignmentSolver implements AssignmentSolver {
+
+    @Override
+    public int[] solve(int[][] profits) {
+        Search search = new Search(profits);
+        search.solveRecursive(0, 0);
+        return search.bestAssignment;
+    }
+
+    /** Estado de una búsqueda, para que el solucionador pueda compartirse entre hilos */
+    private static class Search {
+        private final int[][] profits;
+        private final boolean[] usedStores;
+        private final int[] currentAssignment;
+        private int[] bestAssignment;
+        private int bestProfit = 0;
+
+        Search(int[][] profits) {
+            int robotCount = profits.length;
+            this.profits = profits;
+            this.usedStores = new boolean[robotCount == 0 ? 0 : profits[0].length];
+            this.currentAssignment = new int[robotCount];
+            this.bestAssignment = new int[robotCount];
+            Arrays.fill(currentAssignment, -1);
+            Arrays.fill(bestAssignment, -1);
+        }
+
+        void solveRecursive(int robotIndex, int currentProfit) {
+            if (robotIndex == profits.length) {
+                if (currentProfit > bestProfit) {
+                    bestProfit = currentProfit;
+                    bestAssignment = currentAssignment.clone();
+                }
+                return;
+            }
+            solveRecursive(robotIndex + 1, currentProfit);
+            int[] row = profits[robotIndex];
+            for (int j = 0; j < row.length; j++) {
+                if (!usedStores[j] && row[j] > 0) {
+                    usedStores[j] = true;
+                    currentAssignment[robotIndex] = j;
+                    solveRecursive(robotIndex + 1, currentProfit + row[j]);
+                    currentAssignment[robotIndex] = -1;
+                    usedStores[j] = false;
+                }
+            }
+        }
+    }
+}
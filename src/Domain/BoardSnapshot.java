@@ -0,0 +1,388 @@
+package Domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copia compacta e inmutable del estado completo de una ruta: tamaño del
+ * tablero, tiendas, robots, el historial de ganancias de cada robot y el estado
+ * de los generadores de azar de la ruta y de cada casino.
+ *
+ * <p>Cada atributo se guarda en un arreglo primitivo con una entrada por tienda
+ * o por robot, en el orden en que están en la ruta; los historiales de todos
+ * los robots van uno tras otro en un solo arreglo. Con una instantánea se puede
+ * reconstruir la ruta exactamente como estaba, sin repetir su historia.
+ *
+ * <p>{@link #save(Path)} escribe esas mismas columnas, una tras otra, en un
+ * formato binario con versión; {@link #load(Path)} mapea el archivo en memoria
+ * y copia cada columna con una sola operación, sin colocar los elementos uno
+ * por uno. Antes de entregarla revisa tipos, ubicaciones, cantidades e
+ * historiales, para que un archivo dañado falle al cargarse y no después,
+ * dentro de la ruta.
+ *
+ * <p>Formato (enteros de 4 bytes, big-endian): MAGIC, versión, tamaño del
+ * tablero, tiendas colocadas, robots colocados, número de tiendas, número de
+ * robots y largo del historial; el estado y el incremento del generador de la
+ * ruta (8 bytes cada uno); luego las columnas de tiendas (tipo como byte,
+ * ubicación, tenges, tenges iniciales, recolectado, veces vaciada, orden, y
+ * estado e incremento de su generador en 8 bytes, con incremento 0 si no
+ * tiene), las de robots (tipo como byte, ubicación, ubicación inicial, tenges,
+ * orden, límite del historial), el inicio del historial de cada robot y el
+ * historial. Solo se leen archivos de la versión actual.
+ */
+public class BoardSnapshot {
+    /** Identifica los archivos de instantánea ("SRBS") */
+    private static final int MAGIC = 0x53524253;
+    /** Versión del formato que escribe esta clase */
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+
+    /** Tipos de tienda, en el orden de sus códigos */
+    static final String[] STORE_TYPES = {"normal", "fighter", "casino", "autonomous"};
+    /** Tipos de robot, en el orden de sus códigos */
+    static final String[] ROBOT_TYPES = {"normal", "neverback", "tender", "greedy"};
+
+    final int size;
+    final int placedStores;
+    final int placedRobots;
+    /** Estado e incremento del generador de la ruta */
+    final long randomState;
+    final long randomGamma;
+
+    final byte[] storeType;
+    final int[] storeLocation;
+    final int[] storeTenges;
+    final int[] storeInitialTenges;
+    final int[] storeCollected;
+    final int[] storeTimesEmptied;
+    final int[] storeSequence;
+    /** Estado e incremento del generador de cada tienda; incremento 0 si no tiene */
+    final long[] storeRandomState;
+    final long[] storeRandomGamma;
+
+    final byte[] robotType;
+    final int[] robotLocation;
+    final int[] robotInitialLocation;
+    final int[] robotTenges;
+    final int[] robotSequence;
+    /** Límite del historial de ganancias de cada robot, o 0 si no tiene */
+    final int[] robotHistoryLimit;
+    /** Posición en {@link #history} donde empieza el historial de cada robot; tiene un elemento extra al final */
+    final int[] historyStart;
+    final int[] history;
+
+    BoardSnapshot(int size, int placedStores, int placedRobots, long randomState, long randomGamma,
+                  byte[] storeType, int[] storeLocation, int[] storeTenges, int[] storeInitialTenges,
+                  int[] storeCollected, int[] storeTimesEmptied, int[] storeSequence,
+                  long[] storeRandomState, long[] storeRandomGamma,
+                  byte[] robotType, int[] robotLocation, int[] robotInitialLocation, int[] robotTenges,
+                  int[] robotSequence, int[] robotHistoryLimit, int[] historyStart, int[] history) {
+        this.size = size;
+        this.placedStores = placedStores;
+        this.placedRobots = placedRobots;
+        this.randomState = randomState;
+        this.randomGamma = randomGamma;
+        this.storeType = storeType;
+        this.storeLocation = storeLocation;
+        this.storeTenges = storeTenges;
+        this.storeInitialTenges = storeInitialTenges;
+        this.storeCollected = storeCollected;
+        this.storeTimesEmptied = storeTimesEmptied;
+        this.storeSequence = storeSequence;
+        this.storeRandomState = storeRandomState;
+        this.storeRandomGamma = storeRandomGamma;
+        this.robotType = robotType;
+        this.robotLocation = robotLocation;
+        this.robotInitialLocation = robotInitialLocation;
+        this.robotTenges = robotTenges;
+        this.robotSequence = robotSequence;
+        this.robotHistoryLimit = robotHistoryLimit;
+        this.historyStart = historyStart;
+        this.history = history;
+    }
+
+    /**
+     * Toma la instantánea de las tiendas y robots de una ruta.
+     * @param random Generador de la ruta
+     */
+    static BoardSnapshot of(int size, int placedStores, int placedRobots, SplitMixRandom random,
+                            List<Store> stores, List<Robot> robots) {
+        int storeCount = stores.size();
+        byte[] storeType = new byte[storeCount];
+        int[] storeLocation = new int[storeCount];
+        int[] storeTenges = new int[storeCount];
+        int[] storeInitialTenges = new int[storeCount];
+        int[] storeCollected = new int[storeCount];
+        int[] storeTimesEmptied = new int[storeCount];
+        int[] storeSequence = new int[storeCount];
+        long[] storeRandomState = new long[storeCount];
+        long[] storeRandomGamma = new long[storeCount];
+        for (int i = 0; i < storeCount; i++) {
+            Store s = stores.get(i);
+            storeType[i] = typeCode(STORE_TYPES, s.getType());
+            storeLocation[i] = s.getLocation();
+            storeTenges[i] = s.getTenges();
+            storeInitialTenges[i] = s.getInitialTenges();
+            storeCollected[i] = s.getCollected();
+            storeTimesEmptied[i] = s.getTimesEmptied();
+            storeSequence[i] = s.sequence;
+            if (s.getRandom() instanceof SplitMixRandom) {
+                SplitMixRandom storeRandom = (SplitMixRandom) s.getRandom();
+                storeRandomState[i] = storeRandom.getState();
+                storeRandomGamma[i] = storeRandom.getGamma();
+            }
+        }
+
+        int robotCount = robots.size();
+        byte[] robotType = new byte[robotCount];
+        int[] robotLocation = new int[robotCount];
+        int[] robotInitialLocation = new int[robotCount];
+        int[] robotTenges = new int[robotCount];
+        int[] robotSequence = new int[robotCount];
+        int[] robotHistoryLimit = new int[robotCount];
+        int[] historyStart = new int[robotCount + 1];
+        for (int i = 0; i < robotCount; i++) {
+            historyStart[i + 1] = historyStart[i] + robots.get(i).getProfitHistory().size();
+        }
+        int[] history = new int[historyStart[robotCount]];
+        for (int i = 0; i < robotCount; i++) {
+            Robot r = robots.get(i);
+            robotType[i] = typeCode(ROBOT_TYPES, r.getType());
+            robotLocation[i] = r.getLocation();
+            robotInitialLocation[i] = r.initialLocation;
+            robotTenges[i] = r.getTenges();
+            robotSequence[i] = r.sequence;
+            robotHistoryLimit[i] = r.getProfitHistory().getLimit();
+            r.getProfitHistory().copyTo(history, historyStart[i]);
+        }
+        return new BoardSnapshot(size, placedStores, placedRobots, random.getState(), random.getGamma(),
+            storeType, storeLocation, storeTenges, storeInitialTenges, storeCollected, storeTimesEmptied,
+            storeSequence, storeRandomState, storeRandomGamma, robotType, robotLocation, robotInitialLocation,
+            robotTenges, robotSequence, robotHistoryLimit, historyStart, history);
+    }
+
+    /**
+     * @return Número de casillas por lado del tablero
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getStoreCount() {
+        return storeLocation.length;
+    }
+
+    public int getRobotCount() {
+        return robotLocation.length;
+    }
+
+    /**
+     * Guarda la instantánea en un archivo, reemplazándolo si existe.
+     * @param file Archivo de destino
+     */
+    public void save(Path file) throws IOException {
+        int storeCount = getStoreCount();
+        int robotCount = getRobotCount();
+        long bytes = 4L * HEADER_INTS + bodyBytes(storeCount, robotCount, history.length);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large: " + bytes + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(placedStores).putInt(placedRobots)
+            .putInt(storeCount).putInt(robotCount).putInt(history.length);
+        buffer.putLong(randomState).putLong(randomGamma);
+        buffer.put(storeType);
+        putColumn(buffer, storeLocation);
+        putColumn(buffer, storeTenges);
+        putColumn(buffer, storeInitialTenges);
+        putColumn(buffer, storeCollected);
+        putColumn(buffer, storeTimesEmptied);
+        putColumn(buffer, storeSequence);
+        putColumn(buffer, storeRandomState);
+        putColumn(buffer, storeRandomGamma);
+        buffer.put(robotType);
+        putColumn(buffer, robotLocation);
+        putColumn(buffer, robotInitialLocation);
+        putColumn(buffer, robotTenges);
+        putColumn(buffer, robotSequence);
+        putColumn(buffer, robotHistoryLimit);
+        putColumn(buffer, historyStart);
+        putColumn(buffer, history);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Lee una instantánea guardada con {@link #save(Path)} mapeando el archivo en memoria.
+     * @param file Archivo con la instantánea
+     * @throws IOException si el archivo no es una instantánea, su versión no se
+     *         reconoce o su contenido no es válido
+     */
+    public static BoardSnapshot load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Lee una instantánea desde la posición actual del buffer.
+     */
+    static BoardSnapshot read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 4 * HEADER_INTS || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a board snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        int size = buffer.getInt();
+        int placedStores = buffer.getInt();
+        int placedRobots = buffer.getInt();
+        int storeCount = buffer.getInt();
+        int robotCount = buffer.getInt();
+        int historyLength = buffer.getInt();
+        long cells = (long) size * size;
+        if (size <= 0 || cells > Integer.MAX_VALUE) {
+            throw new IOException("Invalid board size in snapshot: " + size);
+        }
+        if (placedStores < 0 || placedRobots < 0 || storeCount < 0 || robotCount < 0 || historyLength < 0) {
+            throw new IOException("Negative count in board snapshot");
+        }
+        if (buffer.remaining() < bodyBytes(storeCount, robotCount, historyLength)) {
+            throw new IOException("Truncated board snapshot");
+        }
+
+        long randomState = buffer.getLong();
+        long randomGamma = buffer.getLong();
+        byte[] storeType = new byte[storeCount];
+        buffer.get(storeType);
+        int[] storeLocation = getColumn(buffer, storeCount);
+        int[] storeTenges = getColumn(buffer, storeCount);
+        int[] storeInitialTenges = getColumn(buffer, storeCount);
+        int[] storeCollected = getColumn(buffer, storeCount);
+        int[] storeTimesEmptied = getColumn(buffer, storeCount);
+        int[] storeSequence = getColumn(buffer, storeCount);
+        long[] storeRandomState = getLongColumn(buffer, storeCount);
+        long[] storeRandomGamma = getLongColumn(buffer, storeCount);
+        byte[] robotType = new byte[robotCount];
+        buffer.get(robotType);
+        int[] robotLocation = getColumn(buffer, robotCount);
+        int[] robotInitialLocation = getColumn(buffer, robotCount);
+        int[] robotTenges = getColumn(buffer, robotCount);
+        int[] robotSequence = getColumn(buffer, robotCount);
+        int[] robotHistoryLimit = getColumn(buffer, robotCount);
+        int[] historyStart = getColumn(buffer, robotCount + 1);
+        int[] history = getColumn(buffer, historyLength);
+
+        if ((randomGamma & 1) == 0) {
+            throw new IOException("Invalid random generator in snapshot");
+        }
+        checkTypes(storeType, STORE_TYPES, "store");
+        checkLocations(storeLocation, cells, "store");
+        int[] sorted = storeLocation.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IOException("Two stores at location " + sorted[i] + " in snapshot");
+            }
+        }
+        for (int i = 0; i < storeCount; i++) {
+            if (storeRandomGamma[i] != 0 && (storeRandomGamma[i] & 1) == 0) {
+                throw new IOException("Invalid random generator for store " + i + " in snapshot");
+            }
+        }
+        checkTypes(robotType, ROBOT_TYPES, "robot");
+        checkLocations(robotLocation, cells, "robot");
+        checkLocations(robotInitialLocation, cells, "robot initial");
+        if (historyStart[0] != 0 || historyStart[robotCount] != historyLength) {
+            throw new IOException("Invalid profit history bounds in snapshot");
+        }
+        for (int i = 0; i < robotCount; i++) {
+            if (historyStart[i + 1] < historyStart[i]) {
+                throw new IOException("Invalid profit history start for robot " + i + " in snapshot");
+            }
+            if (robotHistoryLimit[i] < 0) {
+                throw new IOException("Negative profit history limit for robot " + i + " in snapshot");
+            }
+        }
+        return new BoardSnapshot(size, placedStores, placedRobots, randomState, randomGamma,
+            storeType, storeLocation, storeTenges, storeInitialTenges, storeCollected, storeTimesEmptied,
+            storeSequence, storeRandomState, storeRandomGamma, robotType, robotLocation, robotInitialLocation,
+            robotTenges, robotSequence, robotHistoryLimit, historyStart, history);
+    }
+
+    /**
+     * @return Bytes que ocupan las columnas después de la cabecera
+     */
+    private static long bodyBytes(int storeCount, int robotCount, int historyLength) {
+        return 8 * 2 + storeCount * (1L + 4 * 6 + 8 * 2) + robotCount * (1L + 4 * 5)
+            + 4L * (robotCount + 1) + 4L * historyLength;
+    }
+
+    private static void checkTypes(byte[] codes, String[] types, String kind) throws IOException {
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] < 0 || codes[i] >= types.length) {
+                throw new IOException("Unknown " + kind + " type " + codes[i] + " at index " + i + " in snapshot");
+            }
+        }
+    }
+
+    private static void checkLocations(int[] locations, long cells, String kind) throws IOException {
+        for (int i = 0; i < locations.length; i++) {
+            if (locations[i] < 0 || locations[i] >= cells) {
+                throw new IOException("Invalid " + kind + " location " + locations[i] + " at index " + i
+                    + " in snapshot");
+            }
+        }
+    }
+
+    private static void putColumn(ByteBuffer buffer, int[] column) {
+        buffer.asIntBuffer().put(column);
+        buffer.position(buffer.position() + 4 * column.length);
+    }
+
+    private static void putColumn(ByteBuffer buffer, long[] column) {
+        buffer.asLongBuffer().put(column);
+        buffer.position(buffer.position() + 8 * column.length);
+    }
+
+    private static int[] getColumn(ByteBuffer buffer, int length) {
+        int[] column = new int[length];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(column);
+        buffer.position(buffer.position() + 4 * length);
+        return column;
+    }
+
+    private static long[] getLongColumn(ByteBuffer buffer, int length) {
+        long[] column = new long[length];
+        LongBuffer longs = buffer.asLongBuffer();
+        longs.get(column);
+        buffer.position(buffer.position() + 8 * length);
+        return column;
+    }
+
+    /**
+     * @return Código del tipo, según su posición en {@code types}; 0 si no se reconoce
+     */
+    static byte typeCode(String[] types, String type) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].equalsIgnoreCase(type)) {
+                return (byte) i;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,6 +1,7 @@
 package Domain;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Implementación de una tienda que introduce elementos de azar en el juego,
@@ -21,8 +22,8 @@ import java.util.Random;
 public class CasinoStore extends Store {
     /** Color distintivo para las tiendas casino */
     private static final String COLOR = "pink";
-    /** Generador de números aleatorios para las probabilidades */
-    private static Random random = new Random();
+    /** Generador propio de la tienda; con una semilla fija los resultados se repiten */
+    private final RandomGenerator random;
 
     /**
      * Crea una nueva tienda casino en la ubicación especificada.
@@ -31,7 +32,19 @@ public class CasinoStore extends Store {
      * @param tenges Cantidad inicial de tenges
      */
     public CasinoStore(int location, int tenges) {
+        this(location, tenges, new SplittableRandom());
+    }
+
+    /**
+     * Crea una tienda casino que sortea sus resultados con el generador dado.
+     * 
+     * @param location Posición en el tablero (0-based)
+     * @param tenges Cantidad inicial de tenges
+     * @param random Generador de números aleatorios, de uso exclusivo de la tienda
+     */
+    public CasinoStore(int location, int tenges, RandomGenerator random) {
         super(location, tenges);
+        this.random = random;
     }
 
     /**
@@ -45,6 +58,19 @@ public class CasinoStore extends Store {
         return COLOR;
     }
 
+    /**
+     * Valor esperado de la apuesta: la mitad de las veces el robot recibe el
+     * doble de los tenges de la tienda y la otra mitad pierde lo que trae.
+     * Se redondea hacia abajo.
+     */
+    @Override
+    public int estimateYield(Robot robot, int robotTenges, int storeTenges) {
+        if (storeTenges <= 0) {
+            return 0;
+        }
+        return (int) Math.floorDiv(2L * storeTenges - robotTenges, 2);
+    }
+
     /**
      * Implementa la mecánica de juego de azar del casino.
      * 
@@ -74,7 +100,7 @@ public class CasinoStore extends Store {
                 collected += storeAmount;
                 tenges = 0;
                 timesEmptied++;
-                updateView();
+                stateChanged();
                 return winAmount;
             } else {
                 // ¡PIERDE! El robot pierde todo lo que traía
@@ -82,13 +108,18 @@ public class CasinoStore extends Store {
                 collected += storeAmount;
                 tenges = 0;
                 timesEmptied++;
-                updateView();
+                stateChanged();
                 return -lostAmount;
             }
         }
         return 0;
     }
 
+    @Override
+    RandomGenerator getRandom() {
+        return random;
+    }
+
     /**
      * Identifica este tipo de tienda como "Casino".
      * @return "Casino" como identificador del tipo
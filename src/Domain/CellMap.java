@@ -0,0 +1,84 @@
+package Domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Asocia un elemento a cada casilla ocupada del tablero.
+ *
+ * <p>La variante densa usa un arreglo con una entrada por casilla y responde
+ * con un solo acceso. La variante dispersa guarda solo las casillas ocupadas,
+ * de modo que su memoria depende de la cantidad de elementos y no del largo
+ * de la ruta; es la que se usa en tableros enormes y casi vacíos.
+ *
+ * @param <T> Tipo de elemento guardado en cada casilla
+ */
+abstract class CellMap<T> {
+
+    /**
+     * @param cellCount Número total de casillas del tablero
+     * @param sparse true para guardar solo las casillas ocupadas
+     */
+    static <T> CellMap<T> create(int cellCount, boolean sparse) {
+        return sparse ? new Sparse<>() : new Dense<>(cellCount);
+    }
+
+    /**
+     * @return El elemento de la casilla o null si está vacía
+     */
+    abstract T get(int location);
+
+    /**
+     * Asigna el elemento de la casilla; null la deja vacía.
+     */
+    abstract void set(int location, T value);
+
+    abstract void clear();
+
+    private static class Dense<T> extends CellMap<T> {
+        private final Object[] cells;
+
+        Dense(int cellCount) {
+            this.cells = new Object[cellCount];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T get(int location) {
+            return (T) cells[location];
+        }
+
+        @Override
+        void set(int location, T value) {
+            cells[location] = value;
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(cells, null);
+        }
+    }
+
+    private static class Sparse<T> extends CellMap<T> {
+        private final HashMap<Integer, T> cells = new HashMap<>();
+
+        @Override
+        T get(int location) {
+            return cells.get(location);
+        }
+
+        @Override
+        void set(int location, T value) {
+            if (value == null) {
+                cells.remove(location);
+            } else {
+                cells.put(location, value);
+            }
+        }
+
+        @Override
+        void clear() {
+            cells.clear();
+        }
+    }
+}
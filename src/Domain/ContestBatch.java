@@ -0,0 +1,98 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Resuelve muchas entradas independientes de la maratón de forma concurrente.
+ *
+ * <p>Cada escenario se resuelve con {@link SilkRoadContest#solve(int[][])} en una
+ * tarea propia del ejecutor. La solución de un escenario no comparte estado con
+ * las demás: usa solo tableros sin vista gráfica y tiendas normales, sin el
+ * generador aleatorio de los casinos ni el lienzo de Shapes.
+ */
+public class ContestBatch {
+    private final SilkRoadContest contest;
+    private final ExecutorService executor;
+
+    /**
+     * Resultado de un escenario del lote.
+     */
+    public static class ScenarioResult {
+        private final int[] profits;
+        private final long nanos;
+
+        ScenarioResult(int[] profits, long nanos) {
+            this.profits = profits;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return Profit máximo de cada día del escenario
+         */
+        public int[] getProfits() {
+            return profits;
+        }
+
+        /**
+         * @return Tiempo que tomó resolver el escenario, en nanosegundos
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Crea un lote que resuelve con el concurso incremental en el pool común.
+     */
+    public ContestBatch() {
+        this(new SilkRoadContest(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param contest Concurso con el que se resuelve cada escenario
+     * @param executor Ejecutor de las tareas, por ejemplo un {@link ForkJoinPool}
+     *                 o un ejecutor de hilos virtuales
+     */
+    public ContestBatch(SilkRoadContest contest, ExecutorService executor) {
+        this.contest = contest;
+        this.executor = executor;
+    }
+
+    /**
+     * Resuelve todos los escenarios y espera a que terminen.
+     * @param scenarios Entradas de la maratón
+     * @return Los resultados en el mismo orden de los escenarios
+     * @throws CompletionException si algún escenario falla o se interrumpe la espera
+     */
+    public List<ScenarioResult> solveAll(List<int[][]> scenarios) {
+        List<Callable<ScenarioResult>> tasks = new ArrayList<>(scenarios.size());
+        for (int[][] days : scenarios) {
+            tasks.add(() -> solveOne(days));
+        }
+        List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+        try {
+            for (Future<ScenarioResult> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+        return results;
+    }
+
+    private ScenarioResult solveOne(int[][] days) {
+        long start = System.nanoTime();
+        int[] profits = contest.solve(days);
+        return new ScenarioResult(profits, System.nanoTime() - start);
+    }
+}
@@ -4,7 +4,16 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.After;
+import org.junit.Assume;
 import java.util.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Suite completa de pruebas para el paquete Domain.
@@ -144,6 +153,59 @@ public class DomainTests {
             resultados.stream().anyMatch(r -> r < 0));
     }
     
+    @Test
+    public void testCasinoConSemillaSeRepite() throws InvalidLocationException, OccupiedLocationException {
+        List<int[][]> resultados = new ArrayList<>();
+        for (int corrida = 0; corrida < 2; corrida++) {
+            SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+            ruta.setRandomSeed(42);
+            for (int ubicacion = 2; ubicacion <= 24; ubicacion += 2) {
+                ruta.placeStore(ubicacion, 10 + ubicacion, "casino");
+            }
+            ruta.placeStore(2, 30, "autonomous");
+            ruta.placeRobot(1);
+            ruta.placeRobot(11);
+            for (int dia = 0; dia < 5; dia++) {
+                ruta.moveRobots();
+                ruta.resupplyStores();
+            }
+            resultados.add(ruta.robots());
+            resultados.add(ruta.stores());
+        }
+
+        assertArrayEquals("Con la misma semilla los robots deben terminar igual",
+            resultados.get(0), resultados.get(2));
+        assertArrayEquals("Con la misma semilla las tiendas deben terminar igual",
+            resultados.get(1), resultados.get(3));
+    }
+
+    @Test
+    public void testMonteCarloReproducibleYConDetencion() {
+        MonteCarloSimulation.Scenario casino = ruta -> {
+            ruta.placeStore(2, 10, "casino");
+            ruta.placeRobot(1);
+            ruta.moveRobot(1, 1);
+        };
+        MonteCarloSimulation simulacion = new MonteCarloSimulation(3, casino);
+
+        MonteCarloSimulation.Estimate primera = simulacion.run(1000, 7);
+        MonteCarloSimulation.Estimate segunda = simulacion.run(1000, 7);
+        assertEquals("La misma semilla debe dar la misma media",
+            primera.getMean(), segunda.getMean(), 0);
+        assertEquals("La misma semilla debe dar la misma varianza",
+            primera.getVariance(), segunda.getVariance(), 0);
+        assertTrue("La media debe estar dentro de su intervalo de confianza",
+            primera.getConfidenceLow() <= primera.getMean() && primera.getMean() <= primera.getConfidenceHigh());
+        assertTrue("Los percentiles deben abarcar la media",
+            primera.percentile(0) <= primera.getMean() && primera.getMean() <= primera.percentile(100));
+
+        MonteCarloSimulation.Estimate temprana = simulacion.run(100000, 7, 1.0);
+        assertTrue("Debe detenerse al alcanzar la precisión pedida",
+            temprana.getReplicas() < 100000);
+        assertTrue("El intervalo debe tener la precisión pedida",
+            temprana.getConfidenceHigh() - temprana.getMean() <= 1.0);
+    }
+
     // ========== Tests de Robots ==========
     
     @Test
@@ -198,6 +260,23 @@ public class DomainTests {
             recolectados < tengesIniciales * 0.75);
     }
     
+    @Test
+    public void testRobotsCompartenCasilla() throws InvalidLocationException, OccupiedLocationException {
+        silkRoad.placeRobot(1, "normal");
+        silkRoad.placeRobot(3, "normal");
+        Robot primero = silkRoad.getRobots().get(0);
+        Robot segundo = silkRoad.getRobots().get(1);
+        
+        silkRoad.moveRobot(3, -1);
+        silkRoad.moveRobot(1, 1);
+        silkRoad.moveRobot(2, 1);
+        
+        assertEquals("Debe moverse el robot colocado primero en la casilla compartida", 
+            2, primero.getLocation());
+        assertEquals("El otro robot debe permanecer en la casilla", 
+            1, segundo.getLocation());
+    }
+    
     // ========== Tests de Reglas de Negocio ==========
     
     @Test
@@ -309,6 +388,37 @@ public class DomainTests {
             Arrays.asList(10, -5, 15), historial);
     }
     
+    @Test
+    public void testHistorialLimitadoConservaUltimas() throws InvalidLocationException, OccupiedLocationException {
+        silkRoad.placeRobot(1, "normal");
+        ProfitHistory historial = silkRoad.getRobots().get(0).getProfitHistory();
+        silkRoad.getRobots().get(0).setHistoryLimit(3);
+        
+        for (int ganancia = 1; ganancia <= 10; ganancia++) {
+            silkRoad.getRobots().get(0).recordProfit(ganancia);
+        }
+        assertEquals("Solo deben conservarse las últimas ganancias", 
+            Arrays.asList(8, 9, 10), historial);
+        assertEquals("Deben contarse todas las ganancias registradas", 
+            10, historial.recordedCount());
+    }
+    
+    @Test
+    public void testHistorialGananciasSoloLecturaFueraDelRobot() throws InvalidLocationException, OccupiedLocationException {
+        silkRoad.placeRobot(1, "normal");
+        Robot robot = silkRoad.getRobots().get(0);
+        robot.recordProfit(5);
+        ProfitHistory historial = robot.getProfitHistory();
+        
+        assertThrows(UnsupportedOperationException.class, historial::clear);
+        assertThrows(UnsupportedOperationException.class, () -> historial.add(1));
+        assertEquals("El historial no debe cambiar", Arrays.asList(5), historial);
+        
+        robot.reboot();
+        assertTrue("Reiniciar el robot debe vaciar su historial", historial.isEmpty());
+        assertEquals(0, historial.recordedCount());
+    }
+    
     @Test
     public void testMovimientoCircularTablero() throws InvalidLocationException, OccupiedLocationException {
         silkRoad.placeRobot(1, "normal");
@@ -327,6 +437,44 @@ public class DomainTests {
             (posicionInicial + tamanoTablero - 1) % tamanoTablero, robot.getLocation());
     }
     
+    @Test
+    public void testMovimientoSaltaTiendasVacias() throws InvalidLocationException, OccupiedLocationException {
+        silkRoad.placeRobot(1, "normal");
+        silkRoad.placeStore(4, TENGES_INICIALES);
+        silkRoad.placeStore(10, TENGES_INICIALES);
+        Robot robot = silkRoad.getRobots().get(0);
+        silkRoad.getStores().get(0).setTenges(0);
+        
+        silkRoad.moveRobot(1, BOARD_SIZE * BOARD_SIZE);
+        assertEquals("El robot debe detenerse en la primera tienda con tenges", 
+            9, robot.getLocation());
+        assertEquals("El costo debe corresponder a la distancia recorrida", 
+            TENGES_INICIALES - 9, robot.getTenges());
+    }
+    
+    @Test
+    public void testMoveRobotsParaleloIgualSecuencial() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad paralela = new SilkRoad(BOARD_SIZE, false);
+        for (SilkRoad ruta : Arrays.asList(silkRoad, paralela)) {
+            ruta.placeStore(3, 40);
+            ruta.placeStore(9, 15);
+            ruta.placeStore(20, 60);
+            ruta.placeRobot(1, "normal");
+            ruta.placeRobot(12, "greedy");
+            ruta.placeRobot(24, "neverback");
+        }
+        
+        silkRoad.moveRobots();
+        paralela.moveRobots(true);
+        
+        assertArrayEquals("Los robots deben terminar en el mismo estado", 
+            silkRoad.robots(), paralela.robots());
+        assertArrayEquals("Las tiendas deben terminar en el mismo estado", 
+            silkRoad.stores(), paralela.stores());
+        assertTrue("Los robots deben haber ganado tenges", 
+            silkRoad.profit() > 0);
+    }
+    
     @Test
     public void testEstadisticasTienda() throws InvalidLocationException, OccupiedLocationException {
         silkRoad.placeStore(1, TENGES_INICIALES);
@@ -339,4 +487,752 @@ public class DomainTests {
         assertTrue("La tienda debe registrar los tenges recolectados", 
             tienda.getCollected() > 0);
     }
+
+    @Test
+    public void testConsultasAgregadasSiguenCambios() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        List<Integer> maximos = new ArrayList<>();
+        ruta.addListener(new SilkRoadListener() {
+            @Override
+            public void profitChanged(int current, int maximum) { maximos.add(maximum); }
+        });
+        ruta.placeStore(15, 40);
+        ruta.placeStore(3, 25);
+        ruta.placeRobot(20, "greedy");
+        ruta.placeRobot(1);
+        ruta.moveRobots();
+        ruta.getRobots().get(0).addTenges(7);
+        ruta.removeStore(3);
+
+        assertEquals("La ganancia debe ser la suma de los tenges de los robots",
+            ruta.getRobots().stream().mapToInt(Robot::getTenges).sum(), ruta.profit());
+        assertEquals("El máximo debe descontar las tiendas retiradas",
+            Integer.valueOf(40), maximos.get(maximos.size() - 1));
+        int[][] esperados = ruta.getRobots().stream()
+            .sorted(Comparator.comparingInt(Robot::getLocation))
+            .map(r -> new int[]{r.getLocation() + 1, r.getTenges()})
+            .toArray(int[][]::new);
+        assertArrayEquals("Los robots deben listarse por ubicación",
+            esperados, ruta.robots());
+
+        ruta.removeRobot(esperados[0][0]);
+        ruta.reboot();
+        assertEquals("Sin ganancias tras reiniciar",
+            0, ruta.profit());
+        assertArrayEquals("Las tiendas deben listarse por ubicación",
+            new int[][]{{15, 40}}, ruta.stores());
+    }
+
+    @Test
+    public void testPlanDeRutasSuperaMovimientoVoraz() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.placeStore(3, 10);
+        ruta.placeStore(5, 10);
+        ruta.placeStore(7, 10);
+        ruta.placeStore(20, 25);
+        ruta.placeRobot(1);
+        SilkRoad voraz = new SilkRoad(ruta.snapshot(), false);
+        SilkRoad planificada = new SilkRoad(ruta.snapshot(), false);
+
+        int[][] plan = ruta.planRoutes(3, 2);
+        int esperada = 0;
+        int ciclo = 1;
+        for (int[] movimiento : plan) {
+            if (movimiento[0] > ciclo) {
+                planificada.resupplyStores();
+                ciclo = movimiento[0];
+            }
+            planificada.moveRobot(movimiento[1], movimiento[2]);
+            assertEquals("El robot debe detenerse en la tienda planificada",
+                movimiento[3], planificada.robots()[0][0]);
+            esperada += movimiento[4];
+        }
+        for (int dia = 0; dia < 2; dia++) {
+            for (int movimiento = 0; movimiento < 3; movimiento++) {
+                voraz.moveRobots();
+            }
+            voraz.resupplyStores();
+        }
+
+        assertEquals("Ejecutar el plan debe dar la ganancia planificada",
+            esperada, planificada.profit());
+        assertTrue("El plan debe superar a elegir un movimiento a la vez",
+            planificada.profit() > voraz.profit());
+        assertEquals("Planificar no debe modificar la ruta",
+            0, ruta.profit());
+
+        // La luchadora que rechaza al robot conserva sus tenges y lo detiene si vuelve a cruzarla
+        SilkRoad conLuchadora = new SilkRoad(BOARD_SIZE, false);
+        conLuchadora.placeStore(4, 30, "fighter");
+        conLuchadora.placeStore(3, 30);
+        conLuchadora.placeStore(10, 10);
+        conLuchadora.placeRobot(5);
+        SilkRoad ejecutada = new SilkRoad(conLuchadora.snapshot(), false);
+        int[][] planLuchadora = conLuchadora.planRoutes(3, 1);
+        assertTrue("El plan debe mover al robot", planLuchadora.length > 0);
+        for (int[] movimiento : planLuchadora) {
+            int antes = ejecutada.profit();
+            ejecutada.moveRobot(movimiento[1], movimiento[2]);
+            assertEquals("El robot debe detenerse en la tienda planificada",
+                movimiento[3], ejecutada.robots()[0][0]);
+            assertEquals("Cada movimiento debe ganar lo planificado",
+                movimiento[4], ejecutada.profit() - antes);
+        }
+    }
+
+    @Test
+    public void testPlanDeRutasIgualaBusquedaExhaustivaConLuchadoras() throws InvalidLocationException, OccupiedLocationException {
+        // Conviene volver a una luchadora que rechazó al robot después de recolectar en otra tienda
+        SilkRoad tierno = new SilkRoad(4, false);
+        tierno.placeStore(12, 1);
+        tierno.placeStore(8, 10);
+        tierno.placeStore(10, 11, "fighter");
+        tierno.placeStore(14, 5);
+        tierno.placeStore(1, 4);
+        tierno.placeRobot(13, "tender");
+        tierno.getRobots().get(0).addTenges(14);
+        assertEquals("El robot debe volver a vencer a la luchadora",
+            9, gananciaDelPlan(tierno, 4));
+
+        SilkRoad vuelta = new SilkRoad(2, false);
+        vuelta.placeStore(2, 10, "fighter");
+        vuelta.placeStore(4, 7);
+        vuelta.placeRobot(1, "neverback");
+        vuelta.getRobots().get(0).addTenges(11);
+        assertEquals("El robot debe dar la vuelta para vencer a la luchadora",
+            12, gananciaDelPlan(vuelta, 3));
+
+        Random azar = new Random(7);
+        String[] tiposRobot = {"normal", "tender", "neverback", "greedy"};
+        for (int caso = 0; caso < 150; caso++) {
+            int lado = 2 + azar.nextInt(2);
+            int casillas = lado * lado;
+            SilkRoad ruta = new SilkRoad(lado, false);
+            List<Integer> ubicaciones = new ArrayList<>();
+            for (int ubicacion = 1; ubicacion <= casillas; ubicacion++) {
+                ubicaciones.add(ubicacion);
+            }
+            Collections.shuffle(ubicaciones, azar);
+            int tiendas = 1 + azar.nextInt(Math.min(5, casillas - 1));
+            for (int k = 0; k < tiendas; k++) {
+                ruta.placeStore(ubicaciones.get(k), 1 + azar.nextInt(15),
+                    azar.nextInt(3) == 0 ? "fighter" : "normal");
+            }
+            ruta.placeRobot(ubicaciones.get(tiendas), tiposRobot[azar.nextInt(tiposRobot.length)]);
+            ruta.getRobots().get(0).addTenges(azar.nextInt(16));
+            if (azar.nextBoolean()) {
+                // El robot puede empezar el ciclo sobre una tienda reabastecida
+                ruta.moveRobot(ubicaciones.get(tiendas), 1 + azar.nextInt(casillas));
+                ruta.resupplyStores();
+            }
+            int movimientos = 1 + azar.nextInt(3);
+            assertEquals("El plan debe igualar la búsqueda exhaustiva en el caso " + caso,
+                gananciaExhaustiva(ruta, movimientos), gananciaDelPlan(ruta, movimientos));
+        }
+    }
+
+    /**
+     * Ejecuta el plan de un ciclo sobre una copia de la ruta, verificando cada
+     * movimiento, y devuelve la ganancia obtenida.
+     */
+    private int gananciaDelPlan(SilkRoad ruta, int movimientos) {
+        SilkRoad ejecutada = new SilkRoad(ruta.snapshot(), false);
+        for (int[] movimiento : ruta.planRoutes(movimientos, 1)) {
+            int antes = ejecutada.profit();
+            ejecutada.moveRobot(movimiento[1], movimiento[2]);
+            assertEquals("El robot debe detenerse donde indica el plan",
+                movimiento[3], ejecutada.robots()[0][0]);
+            assertEquals("Cada movimiento debe ganar lo planificado",
+                movimiento[4], ejecutada.profit() - antes);
+        }
+        return ejecutada.profit() - ruta.profit();
+    }
+
+    /**
+     * Mayor ganancia del único robot de la ruta probando todos los pasos
+     * posibles en cada movimiento.
+     */
+    private int gananciaExhaustiva(SilkRoad ruta, int movimientos) {
+        if (movimientos == 0) {
+            return 0;
+        }
+        int casillas = ruta.getBoardSize();
+        int ubicacion = ruta.robots()[0][0];
+        BoardSnapshot estado = ruta.snapshot();
+        int mejor = 0;
+        for (int pasos = ruta.getRobots().get(0).canMoveBackward() ? -casillas : 1; pasos <= casillas; pasos++) {
+            if (pasos == 0) {
+                continue;
+            }
+            SilkRoad copia = new SilkRoad(estado, false);
+            copia.moveRobot(ubicacion, pasos);
+            mejor = Math.max(mejor, copia.profit() - ruta.profit() + gananciaExhaustiva(copia, movimientos - 1));
+        }
+        return mejor;
+    }
+
+    @Test
+    public void testRobotMasRicoSigueParpadeandoAlMoverse() throws InvalidLocationException, OccupiedLocationException {
+        Assume.assumeFalse("Requiere una pantalla", java.awt.GraphicsEnvironment.isHeadless());
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, true);
+        try {
+            ruta.placeStore(3, 20);
+            ruta.placeStore(5, 20);
+            ruta.placeRobot(1);
+            ruta.placeRobot(10);
+            Robot rico = ruta.getRobots().get(0);
+            ruta.moveRobot(1, 2);
+            assertTrue("El robot más rico debe parpadear", rico.getView().isBlinking());
+            ruta.moveRobot(3, 2);
+            assertTrue("Redibujar al robot al moverlo no debe detener su parpadeo",
+                rico.getView().isBlinking());
+        } finally {
+            ruta.finish();
+        }
+    }
+
+    @Test
+    public void testRobotsMasRicosEnOrden() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.placeRobot(1);
+        ruta.placeRobot(5);
+        ruta.placeRobot(9);
+        ruta.placeRobot(13);
+        ruta.getRobots().get(0).addTenges(10);
+        ruta.getRobots().get(1).addTenges(30);
+        ruta.getRobots().get(2).addTenges(10);
+        ruta.getRobots().get(3).addTenges(20);
+
+        assertArrayEquals("Los más ricos primero, y ante empate el colocado primero",
+            new int[][]{{5, 30}, {13, 20}, {1, 10}}, ruta.richestRobots(3));
+
+        ruta.getRobots().get(1).addTenges(-25);
+        ruta.removeRobot(13);
+        assertArrayEquals("El ranking debe seguir los cambios de tenges",
+            new int[][]{{1, 10}, {9, 10}, {5, 5}}, ruta.richestRobots(10));
+    }
+
+    @Test
+    public void testCoordenadasEspiral() {
+        Spiral espiral = new Spiral(BOARD_SIZE);
+        int[][] esperado = {
+            {0, 0}, {0, 4}, {4, 4}, {4, 0}, {1, 0}, {1, 1}, {1, 3}, {3, 3}, {3, 1}, {2, 1}, {2, 2}};
+        int[] ubicaciones = {0, 4, 8, 12, 15, 16, 18, 20, 22, 23, 24};
+        for (int i = 0; i < ubicaciones.length; i++) {
+            assertArrayEquals("Coordenadas de la ubicación " + ubicaciones[i], 
+                esperado[i], espiral.coordsOf(ubicaciones[i]));
+        }
+    }
+    
+    @Test
+    public void testEspiralIdaYVuelta() {
+        Spiral espiral = new Spiral(BOARD_SIZE + 2);
+        int[][] matriz = espiral.toMatrix();
+        for (int fila = 0; fila < matriz.length; fila++) {
+            for (int columna = 0; columna < matriz.length; columna++) {
+                assertEquals("La matriz debe coincidir con la conversión directa", 
+                    matriz[fila][columna], espiral.locationAt(fila, columna));
+                assertArrayEquals("Las conversiones deben ser inversas", 
+                    new int[]{fila, columna}, espiral.coordsOf(matriz[fila][columna]));
+            }
+        }
+    }
+    
+    @Test
+    public void testTableroDispersoConUbicacionLejana() {
+        int lejana = 1_000_000_000;
+        SilkRoad ruta = new SilkRoad(new int[][]{{1, 1}, {2, 5, 30}, {2, lejana, 50}, {1, lejana - 3}}, true);
+        assertTrue("Un tablero enorme debe ser disperso", 
+            ruta.isSparse());
+        
+        ruta.moveRobots();
+        assertEquals("Cada robot debe llegar a la tienda cercana", 
+            (30 - 4) + (50 - 3), ruta.profit());
+        assertEquals("El robot lejano debe quedar en la tienda", 
+            lejana - 1, ruta.getRobots().get(1).getLocation());
+    }
+    
+    @Test
+    public void testTableroRechazaMasCasillasQueUnInt() {
+        int limite = 46340 * 46340;
+        SilkRoad ruta = new SilkRoad(new int[][]{{1, 1}, {2, limite - 1, 5}}, false);
+        assertEquals("El tablero más grande debe conservar su tamaño", 
+            limite, ruta.getBoardSize());
+        assertEquals("La tienda lejana debe conservarse", 
+            1, ruta.stores().length);
+        
+        assertThrows("Un tablero de más casillas que un int debe rechazarse", IllegalArgumentException.class,
+            () -> new SilkRoad(new int[][]{{1, 1}, {2, 2147483000, 5}}, false));
+        assertThrows("Un lado demasiado grande debe rechazarse", IllegalArgumentException.class,
+            () -> new SilkRoad(46341, false));
+    }
+    
+    @Test
+    public void testRegistroRepiteCualquierEvento() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        SimulationLog registro = new SimulationLog(3);
+        ruta.startRecording(registro);
+        List<int[][]> robotsPorEvento = new ArrayList<>();
+        List<int[][]> tiendasPorEvento = new ArrayList<>();
+        robotsPorEvento.add(ruta.robots());
+        tiendasPorEvento.add(ruta.stores());
+        
+        Runnable[] operaciones = {
+            () -> ruta.placeStore(4, 40),
+            () -> ruta.placeRobot(1),
+            () -> ruta.placeStore(12, 25),
+            () -> ruta.placeRobot(20),
+            () -> ruta.moveRobots(),
+            () -> ruta.moveRobot(4, 3),
+            () -> ruta.resupplyStores(),
+            () -> ruta.returnRobots(),
+            () -> ruta.moveRobots(),
+            () -> ruta.reboot()
+        };
+        for (Runnable operacion : operaciones) {
+            operacion.run();
+            robotsPorEvento.add(ruta.robots());
+            tiendasPorEvento.add(ruta.stores());
+        }
+        ruta.removeStore(12);
+        robotsPorEvento.add(ruta.robots());
+        tiendasPorEvento.add(ruta.stores());
+        
+        assertEquals("Cada operación exitosa debe quedar registrada", 
+            robotsPorEvento.size() - 1, registro.size());
+        for (int i = 0; i <= registro.size(); i++) {
+            SilkRoad repetida = registro.replay(i);
+            assertArrayEquals("Robots tras " + i + " eventos", 
+                robotsPorEvento.get(i), repetida.robots());
+            assertArrayEquals("Tiendas tras " + i + " eventos", 
+                tiendasPorEvento.get(i), repetida.stores());
+        }
+    }
+    
+    @Test
+    public void testRegistroRepiteCasinosConSemilla() throws IOException, InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.setRandomSeed(42);
+        SimulationLog registro = new SimulationLog(4);
+        ruta.startRecording(registro);
+        List<int[][]> robotsPorEvento = new ArrayList<>();
+        robotsPorEvento.add(ruta.robots());
+        for (int ubicacion = 3; ubicacion <= 23; ubicacion += 4) {
+            ruta.placeStore(ubicacion, 10 + ubicacion, "casino");
+            anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+        }
+        ruta.placeStore(3, 30, "autonomous");
+        anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+        for (int ubicacion = 1; ubicacion <= 21; ubicacion += 5) {
+            ruta.placeRobot(ubicacion);
+            anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+        }
+        for (int dia = 0; dia < 6; dia++) {
+            ruta.moveRobots();
+            anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+            ruta.resupplyStores();
+            anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+            if (dia == 2) {
+                ruta.setRandomSeed(7);
+                anotarSiSeRegistro(registro, robotsPorEvento, ruta);
+            }
+        }
+
+        for (int i = 0; i <= registro.size(); i++) {
+            assertArrayEquals("Los casinos deben repetir sus resultados tras " + i + " eventos",
+                robotsPorEvento.get(i), registro.replay(i).robots());
+        }
+        ByteArrayOutputStream guardado = new ByteArrayOutputStream();
+        registro.writeTo(guardado);
+        SimulationLog leido = SimulationLog.readFrom(new ByteArrayInputStream(guardado.toByteArray()),
+            registro.initialSnapshot(), 100);
+        assertArrayEquals("El registro leído debe repetir los mismos sorteos",
+            ruta.robots(), leido.replay(leido.size()).robots());
+    }
+
+    /**
+     * Guarda los robots de la ruta si la última operación quedó en el registro.
+     */
+    private static void anotarSiSeRegistro(SimulationLog registro, List<int[][]> robotsPorEvento, SilkRoad ruta) {
+        if (registro.size() == robotsPorEvento.size()) {
+            robotsPorEvento.add(ruta.robots());
+        }
+    }
+
+    @Test
+    public void testInstantaneaGuardaYCargaTablero()throws IOException, InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.placeStore(4, 40, "fighter");
+        ruta.placeStore(12, 25);
+        ruta.placeRobot(1, "greedy");
+        ruta.placeRobot(20);
+        ruta.getRobots().get(1).setHistoryLimit(2);
+        ruta.moveRobots();
+        Path archivo = Files.createTempFile("silkroad", ".snapshot");
+        try {
+            ruta.snapshot().save(archivo);
+            SilkRoad cargada = new SilkRoad(BoardSnapshot.load(archivo), false);
+            
+            assertArrayEquals("Las tiendas deben cargarse igual", 
+                ruta.stores(), cargada.stores());
+            assertArrayEquals("Los robots deben cargarse igual", 
+                ruta.robots(), cargada.robots());
+            assertEquals("El tipo de tienda debe conservarse", 
+                "Fighter", cargada.getStores().get(0).getType());
+            assertEquals("El historial de ganancias debe conservarse", 
+                ruta.getRobots().get(1).getProfitHistory(), cargada.getRobots().get(1).getProfitHistory());
+            assertEquals("El límite del historial debe conservarse",
+                2, cargada.getRobots().get(1).getProfitHistory().getLimit());
+        } finally {
+            Files.delete(archivo);
+        }
+    }
+    
+    @Test
+    public void testInstantaneaDanadaFallaAlCargar() throws IOException, InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.placeStore(4, 40, "fighter");
+        ruta.placeRobot(1);
+        ruta.moveRobots();
+        Path archivo = Files.createTempFile("silkroad", ".snapshot");
+        byte[] original;
+        try {
+            ruta.snapshot().save(archivo);
+            original = Files.readAllBytes(archivo);
+        } finally {
+            Files.delete(archivo);
+        }
+        // Cabecera de 8 enteros y el generador de la ruta; luego las columnas de la tienda y las del robot
+        int tipoTienda = 4 * 8 + 8 * 2;
+        int ubicacionRobot = tipoTienda + 1 + 4 * 6 + 8 * 2 + 1;
+        int[][] danos = {
+            {4, 2},                  // versión
+            {24, Integer.MAX_VALUE}, // número de robots
+            {28, -1},                // largo del historial
+            {tipoTienda + 1, BOARD_SIZE * BOARD_SIZE},
+            {ubicacionRobot, -1},
+            {ubicacionRobot + 4 * 5 + 4, 50}, // fin del historial del robot
+        };
+        for (int[] dano : danos) {
+            byte[] copia = original.clone();
+            ByteBuffer.wrap(copia).putInt(dano[0], dano[1]);
+            assertThrows("El daño en el byte " + dano[0] + " debe rechazarse", IOException.class,
+                () -> BoardSnapshot.read(ByteBuffer.wrap(copia)));
+        }
+        byte[] tipoDesconocido = original.clone();
+        tipoDesconocido[tipoTienda] = 9;
+        assertThrows("Un tipo de tienda desconocido debe rechazarse", IOException.class,
+            () -> BoardSnapshot.read(ByteBuffer.wrap(tipoDesconocido)));
+        assertEquals("El archivo sin daños debe cargarse",
+            1, BoardSnapshot.read(ByteBuffer.wrap(original)).getStoreCount());
+    }
+
+    // ========== Tests de la Maratón ==========
+
+    @Test
+    public void testRamificacionYPodaIgualBusquedaExhaustiva() {
+        Random azar = new Random(11);
+        AssignmentSolver exhaustivo = new BacktrackingAssignmentSolver();
+        AssignmentSolver paralelo = new ParallelBranchAndBoundSolver();
+        for (int caso = 0; caso < 200; caso++) {
+            int[][] ganancias = new int[1 + azar.nextInt(6)][1 + azar.nextInt(6)];
+            for (int[] fila : ganancias) {
+                for (int j = 0; j < fila.length; j++) {
+                    fila[j] = azar.nextInt(41) - 20;
+                }
+            }
+            assertEquals("La ganancia óptima debe coincidir en el caso " + caso,
+                gananciaAsignada(ganancias, exhaustivo.solve(ganancias)),
+                gananciaAsignada(ganancias, paralelo.solve(ganancias)));
+        }
+    }
+
+    @Test
+    public void testHungaroIgualBusquedaExhaustiva() {
+        Random azar = new Random(7);
+        AssignmentSolver exhaustivo = new BacktrackingAssignmentSolver();
+        AssignmentSolver hungaro = new HungarianAssignmentSolver();
+        for (int caso = 0; caso < 500; caso++) {
+            int[][] ganancias = new int[1 + azar.nextInt(6)][1 + azar.nextInt(6)];
+            for (int[] fila : ganancias) {
+                for (int j = 0; j < fila.length; j++) {
+                    fila[j] = azar.nextInt(41) - 20;
+                }
+            }
+            assertEquals("La ganancia óptima debe coincidir en el caso " + caso,
+                gananciaAsignada(ganancias, exhaustivo.solve(ganancias)),
+                gananciaAsignada(ganancias, hungaro.solve(ganancias)));
+        }
+    }
+
+    private static int gananciaAsignada(int[][] ganancias, int[] asignacion) {
+        Set<Integer> usadas = new HashSet<>();
+        int total = 0;
+        for (int i = 0; i < asignacion.length; i++) {
+            if (asignacion[i] >= 0) {
+                assertTrue("Cada tienda se asigna una sola vez", usadas.add(asignacion[i]));
+                total += ganancias[i][asignacion[i]];
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testOptimizadorRespetaTiposDeRobotYTienda() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        ruta.placeStore(3, 50, "fighter");
+        ruta.placeStore(10, 20);
+        ruta.placeStore(18, 30);
+        ruta.placeRobot(1, "greedy");
+        ruta.placeRobot(20, "neverback");
+
+        ExpectedProfitOptimizer.Assignment asignacion = new ExpectedProfitOptimizer().optimize(ruta);
+        assertArrayEquals("El codicioso no vence a la luchadora y el NeverBack se detiene en ella",
+            new int[][]{{1, -8, 18, 45 - 16}}, asignacion.getMoves());
+        assertEquals("La ganancia total debe sumar los movimientos",
+            29, asignacion.getExpectedProfit());
+
+        SilkRoad casino = new SilkRoad(BOARD_SIZE, false);
+        casino.placeStore(3, 10, "casino");
+        casino.placeRobot(1);
+        assertArrayEquals("El casino debe valer su ganancia esperada",
+            new int[][]{{1, 2, 3, (20 + 2) / 2 - 2}}, new ExpectedProfitOptimizer().optimize(casino).getMoves());
+    }
+
+    @Test
+    public void testOptimizadorEjecutadoDaLaGananciaEsperada() throws InvalidLocationException, OccupiedLocationException {
+        String[] tiposTienda = {"normal", "fighter", "autonomous"};
+        String[] tiposRobot = {"normal", "greedy", "neverback", "tender"};
+        int casillas = BOARD_SIZE * BOARD_SIZE;
+        Random azar = new Random(11);
+        for (int caso = 0; caso < 300; caso++) {
+            SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+            List<Integer> libres = new ArrayList<>();
+            for (int c = 1; c <= casillas; c++) {
+                libres.add(c);
+            }
+            Collections.shuffle(libres, azar);
+            int tiendas = 2 + azar.nextInt(6);
+            int robots = 1 + azar.nextInt(5);
+            for (int k = 0; k < tiendas; k++) {
+                ruta.placeStore(libres.get(k), 1 + azar.nextInt(60), tiposTienda[azar.nextInt(tiposTienda.length)]);
+            }
+            for (int k = tiendas; k < tiendas + robots; k++) {
+                ruta.placeRobot(libres.get(k), tiposRobot[azar.nextInt(tiposRobot.length)]);
+            }
+            // Algunos robots quedan sobre tiendas o compartiendo casilla
+            for (int k = 0; k < 3; k++) {
+                Robot robot = ruta.getRobots().get(azar.nextInt(robots));
+                ruta.moveRobot(robot.getLocation() + 1, 1 + azar.nextInt(casillas - 1));
+            }
+
+            ExpectedProfitOptimizer.Assignment asignacion = new ExpectedProfitOptimizer().optimize(ruta);
+            assertEquals("El método húngaro sobre la matriz compacta debe dar la misma ganancia en el caso " + caso,
+                asignacion.getExpectedProfit(),
+                new ExpectedProfitOptimizer(new HungarianAssignmentSolver()).optimize(ruta).getExpectedProfit());
+            int inicial = ruta.profit();
+            for (int[] movimiento : asignacion.getMoves()) {
+                int antes = ruta.profit();
+                ruta.moveRobot(movimiento[0], movimiento[1]);
+                assertTrue("El movimiento debe ser válido en el caso " + caso, ruta.ok());
+                assertEquals("El movimiento debe ganar lo esperado en el caso " + caso,
+                    movimiento[3], ruta.profit() - antes);
+            }
+            assertEquals("Ejecutar el plan debe dar la ganancia esperada en el caso " + caso,
+                asignacion.getExpectedProfit(), ruta.profit() - inicial);
+        }
+    }
+
+    @Test
+    public void testMaratonIncrementalIgualReconstruccion() {
+        SilkRoadContest incremental = new SilkRoadContest();
+        SilkRoadContest reconstruccion = new SilkRoadContest(new HungarianAssignmentSolver());
+        int[][] tiendaNegativa = {{2, 5, -3}, {2, 5, 10}, {1, 6}};
+        assertArrayEquals("Una tienda con tenges negativos no debe ocupar la casilla",
+            reconstruccion.solve(tiendaNegativa), incremental.solve(tiendaNegativa));
+
+        Random azar = new Random(3);
+        for (int caso = 0; caso < 100; caso++) {
+            int[][] dias = new int[1 + azar.nextInt(15)][];
+            for (int d = 0; d < dias.length; d++) {
+                int ubicacion = azar.nextInt(30);
+                dias[d] = azar.nextBoolean()
+                    ? new int[]{1, ubicacion}
+                    : new int[]{2, ubicacion, azar.nextInt(40) - 5};
+            }
+            assertArrayEquals("Reparar la asignación debe coincidir con reconstruirla en el caso " + caso,
+                reconstruccion.solve(dias), incremental.solve(dias));
+        }
+    }
+
+    @Test
+    public void testMaratonIncrementalConUbicacionesEnormes() {
+        SilkRoadContest incremental = new SilkRoadContest();
+        SilkRoadContest reconstruccion = new SilkRoadContest(new HungarianAssignmentSolver());
+        int limite = 46340 * 46340 - 1;
+        int[][] lejanos = {{1, limite}, {2, 1, 50}, {2, limite - 10, 30}};
+        assertArrayEquals("Las distancias de un tablero enorme no deben desbordarse",
+            reconstruccion.solve(lejanos), incremental.solve(lejanos));
+        assertArrayEquals("El robot debe alcanzar la tienda dando la vuelta al tablero",
+            new int[]{0, 48, 48}, incremental.solve(lejanos));
+
+        assertThrows("Un tablero de más casillas que un int debe rechazarse", IllegalArgumentException.class,
+            () -> incremental.solve(new int[][]{{1, 2147400000}, {2, 1, 50}}));
+        assertThrows("La mayor ubicación posible debe rechazarse", IllegalArgumentException.class,
+            () -> incremental.solve(new int[][]{{1, Integer.MAX_VALUE}, {2, 1, 50}}));
+    }
+
+    @Test
+    public void testLoteConservaOrdenDeEscenarios() {
+        List<int[][]> escenarios = Arrays.asList(
+            new int[][]{{1, 20}, {2, 15, 15}, {2, 40, 50}, {1, 50}},
+            new int[][]{{2, 3, 10}, {1, 1}},
+            new int[][]{{1, 7}});
+        SilkRoadContest concurso = new SilkRoadContest();
+        
+        List<ContestBatch.ScenarioResult> resultados = new ContestBatch().solveAll(escenarios);
+        assertEquals("Debe haber un resultado por escenario", 
+            escenarios.size(), resultados.size());
+        for (int i = 0; i < escenarios.size(); i++) {
+            assertArrayEquals("El lote debe coincidir con resolver cada escenario", 
+                concurso.solve(escenarios.get(i)), resultados.get(i).getProfits());
+            assertTrue("Cada escenario debe registrar su tiempo", 
+                resultados.get(i).getNanos() >= 0);
+        }
+    }
+    
+    @Test
+    public void testLecturaEnFlujoIgualEntradaCompleta() throws IOException {
+        String entrada = "6\n1 20\n2 15 15\n2 40 50\n1 50\n2 80 20\n2 70 30\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        SilkRoadContest concurso = new SilkRoadContest();
+        
+        concurso.solve(Channels.newChannel(new ByteArrayInputStream(entrada.getBytes())),
+            Channels.newChannel(salida));
+        int[] esperado = concurso.solve(new int[][]{
+            {1, 20}, {2, 15, 15}, {2, 40, 50}, {1, 50}, {2, 80, 20}, {2, 70, 30}});
+        StringBuilder lineas = new StringBuilder();
+        for (int profit : esperado) {
+            lineas.append(profit).append('\n');
+        }
+        assertEquals("La salida en flujo debe coincidir con solve", 
+            lineas.toString(), salida.toString());
+    }
+
+    @Test
+    public void testLecturaNoBloqueanteUsaAlgoritmoConfigurado() throws Exception {
+        Pipe tuberia = Pipe.open();
+        tuberia.source().configureBlocking(false);
+        Thread escritor = new Thread(() -> {
+            try (Pipe.SinkChannel destino = tuberia.sink()) {
+                for (String parte : new String[]{"3\n1 2", "0\n2 15 15\n", "2 40 50\n"}) {
+                    destino.write(ByteBuffer.wrap(parte.getBytes()));
+                    Thread.sleep(20);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        int[] llamadas = new int[1];
+        AssignmentSolver hungaro = new HungarianAssignmentSolver();
+        SilkRoadContest concurso = new SilkRoadContest(ganancias -> {
+            llamadas[0]++;
+            return hungaro.solve(ganancias);
+        });
+        List<Long> ganancias = new ArrayList<>();
+
+        escritor.start();
+        try (MarathonReader lector = new MarathonReader(tuberia.source())) {
+            concurso.solve(lector, ganancias::add);
+        }
+        escritor.join();
+        assertEquals("Debe leer cada día de un canal no bloqueante",
+            Arrays.asList(0L, 10L, 30L), ganancias);
+        assertTrue("Debe resolver con el algoritmo configurado", llamadas[0] > 0);
+        assertFalse("Cerrar el lector debe cerrar el canal", tuberia.source().isOpen());
+    }
+    
+    @Test
+    public void testLecturaEnFlujoLiberaCanalNoBloqueante() throws Exception {
+        Pipe tuberia = Pipe.open();
+        tuberia.source().configureBlocking(false);
+        Thread escritor = new Thread(() -> {
+            try (Pipe.SinkChannel destino = tuberia.sink()) {
+                for (String parte : new String[]{"2\n1 2", "0\n2 15 15\n"}) {
+                    destino.write(ByteBuffer.wrap(parte.getBytes()));
+                    Thread.sleep(20);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        escritor.start();
+        new SilkRoadContest().solve(tuberia.source(), Channels.newChannel(salida));
+        escritor.join();
+        assertEquals("Debe leer cada día del canal no bloqueante", "0\n10\n", salida.toString());
+        assertTrue("El canal del llamador debe seguir abierto", tuberia.source().isOpen());
+        assertFalse("El canal no debe quedar registrado en un selector", tuberia.source().isRegistered());
+        tuberia.source().configureBlocking(true);
+        tuberia.source().close();
+    }
+
+    @Test
+    public void testLecturaEnFlujoConservaProfitsGrandes() throws IOException {
+        String entrada = "4\n1 1\n1 3\n2 2 2000000000\n2 4 2000000000\n";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        SilkRoadContest concurso = new SilkRoadContest();
+        List<Long> ganancias = new ArrayList<>();
+
+        concurso.solve(Channels.newChannel(new ByteArrayInputStream(entrada.getBytes())),
+            Channels.newChannel(salida));
+        try (MarathonReader lector = new MarathonReader(ByteBuffer.wrap(entrada.getBytes()))) {
+            concurso.solve(lector, ganancias::add);
+        }
+        assertEquals("El profit no debe desbordar un int",
+            Arrays.asList(0L, 0L, 1999999999L, 3999999998L), ganancias);
+        assertEquals("Ambas lecturas en flujo deben coincidir",
+            "0\n0\n1999999999\n3999999998\n", salida.toString());
+    }
+    
+    // ========== Tests de Observadores ==========
+    
+    @Test
+    public void testRutaSinVistaNotificaObservadores() throws InvalidLocationException, OccupiedLocationException {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        List<String> eventos = new ArrayList<>();
+        ruta.addListener(new SilkRoadListener() {
+            @Override
+            public void storePlaced(Store store) { eventos.add("tienda"); }
+            @Override
+            public void robotPlaced(Robot robot) { eventos.add("robot"); }
+            @Override
+            public void robotMoved(Robot robot) { eventos.add("movimiento"); }
+        });
+        
+        ruta.placeStore(1, TENGES_INICIALES, "normal");
+        ruta.placeRobot(3, "normal");
+        ruta.moveRobot(3, -2);
+        
+        assertEquals("El observador debe recibir los eventos en orden", 
+            Arrays.asList("tienda", "robot", "movimiento"), eventos);
+        ruta.finish();
+    }
+    
+    @Test
+    public void testErrorSinVistaNoLanzaExcepcion() {
+        SilkRoad ruta = new SilkRoad(BOARD_SIZE, false);
+        List<String> errores = new ArrayList<>();
+        ruta.addListener(new SilkRoadListener() {
+            @Override
+            public void operationFailed(String message) { errores.add(message); }
+        });
+        
+        ruta.placeRobot(0);
+        assertFalse("La operación inválida debe marcarse como fallida", 
+            ruta.wasLastOperationOk());
+        assertEquals("El error debe notificarse al observador", 
+            1, errores.size());
+    }
 }
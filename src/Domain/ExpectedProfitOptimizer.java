@@ -0,0 +1,411 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Calcula la asignación óptima de robots a tiendas respetando las reglas de
+ * cada tipo de robot y de tienda.
+ *
+ * <p>A diferencia de la maratón, donde la ganancia es siempre los tenges de la
+ * tienda menos la distancia, aquí cada par se evalúa con los métodos de las
+ * propias clases: el costo de movimiento del robot, si puede retroceder, lo que
+ * recolecta, el umbral de las tiendas luchadoras y el valor esperado de los
+ * casinos ({@link Store#estimateYield(Robot, int)}).
+ *
+ * <p>Un robot se detiene en la primera tienda con tenges de su camino, incluso
+ * si es una luchadora que lo rechaza, así que en un solo movimiento solo puede
+ * llegar a la tienda más cercana en cada sentido permitido. Cada robot tiene
+ * entonces a lo sumo dos opciones, y el grafo robot–tienda se resuelve disperso
+ * con {@link WeightedMatching}, sin una matriz robot × tienda. Con un
+ * {@link AssignmentSolver} explícito, la matriz solo tiene los robots con alguna
+ * opción rentable y las tiendas que alguno de ellos alcanza.
+ *
+ * <p>Solo se asigna al primer robot colocado de cada casilla, que es el
+ * que mueve {@link SilkRoad#moveRobot(int, int)}, y los movimientos se entregan
+ * en un orden en que cada uno mueve al robot asignado.
+ */
+public class ExpectedProfitOptimizer {
+    /** Algoritmo de asignación, o null para el emparejamiento disperso */
+    private final AssignmentSolver solver;
+
+    /**
+     * Asignación elegida y su ganancia esperada.
+     */
+    public static class Assignment {
+        private final int[][] moves;
+        private final long expectedProfit;
+
+        Assignment(int[][] moves, long expectedProfit) {
+            this.moves = moves;
+            this.expectedProfit = expectedProfit;
+        }
+
+        /**
+         * @return Un movimiento por robot asignado: ubicación del robot (1-based),
+         *         pasos con signo para {@link SilkRoad#moveRobot(int, int)},
+         *         ubicación de la tienda (1-based) y ganancia esperada
+         */
+        public int[][] getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return Suma de las ganancias esperadas de los movimientos
+         */
+        public long getExpectedProfit() {
+            return expectedProfit;
+        }
+    }
+
+    /**
+     * Crea un optimizador que resuelve con el método húngaro sobre las parejas alcanzables.
+     */
+    public ExpectedProfitOptimizer() {
+        this.solver = null;
+    }
+
+    /**
+     * @param solver Algoritmo de asignación a usar
+     */
+    public ExpectedProfitOptimizer(AssignmentSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Calcula la mejor asignación para el estado actual de la ruta, sin modificarla.
+     */
+    public Assignment optimize(SilkRoad road) {
+        List<Robot> robots = firstInEachCell(road.getRobots());
+        List<Store> stores = new ArrayList<>();
+        for (Store s : road.getStores()) {
+            if (s.getTenges() > 0) {
+                stores.add(s);
+            }
+        }
+        if (robots.isEmpty() || stores.isEmpty()) {
+            return new Assignment(new int[0][], 0);
+        }
+        stores.sort(Comparator.comparingInt(Store::getLocation));
+        int boardSize = road.getBoardSize();
+        Options options = new Options(robots, stores, boardSize);
+        int[] assignment = solver == null ? options.solveSparse() : options.solveWith(solver);
+
+        List<int[]> moves = new ArrayList<>();
+        List<Robot> movers = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            int profit = j >= 0 ? options.profit(i, j) : 0;
+            if (profit > 0) {
+                Robot robot = robots.get(i);
+                moves.add(new int[]{robot.getLocation() + 1, bestSteps(robot, stores, j, boardSize),
+                    stores.get(j).getLocation() + 1, profit});
+                movers.add(robot);
+                total += profit;
+            }
+        }
+        return new Assignment(executionOrder(moves, movers), total);
+    }
+
+    /**
+     * @return Los robots que son los primeros colocados de su casilla, en el orden dado
+     */
+    private static List<Robot> firstInEachCell(List<Robot> robots) {
+        Map<Integer, Integer> firstSequenceAt = new HashMap<>();
+        for (Robot robot : robots) {
+            firstSequenceAt.merge(robot.getLocation(), robot.sequence, Math::min);
+        }
+        List<Robot> first = new ArrayList<>();
+        for (Robot robot : robots) {
+            if (firstSequenceAt.get(robot.getLocation()) == robot.sequence) {
+                first.add(robot);
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Tiendas rentables que alcanza cada robot: la más cercana hacia adelante y,
+     * si puede retroceder, la más cercana hacia atrás.
+     */
+    private static class Options implements WeightedMatching.Edges {
+        /** Tienda de cada opción, o -1; el robot i tiene las opciones 2i y 2i + 1 */
+        final int[] store;
+        final int[] profit;
+        /** Opciones de cada tienda: {@code byStore[storeStart[j] .. storeStart[j + 1])} */
+        final int[] storeStart;
+        final int[] byStore;
+
+        /**
+         * @param stores Tiendas con tenges, ordenadas por ubicación
+         */
+        Options(List<Robot> robots, List<Store> stores, int boardSize) {
+            store = new int[2 * robots.size()];
+            profit = new int[store.length];
+            Arrays.fill(store, -1);
+            for (int i = 0; i < robots.size(); i++) {
+                Robot robot = robots.get(i);
+                int ahead = nearestAhead(robot, stores);
+                if (ahead >= 0) {
+                    offer(2 * i, ahead, profitOver(robot, stores.get(ahead), forward(robot, stores.get(ahead), boardSize)));
+                }
+                int behind = robot.canMoveBackward() ? nearestBehind(robot, stores) : -1;
+                if (behind >= 0) {
+                    int value = profitOver(robot, stores.get(behind), boardSize - forward(robot, stores.get(behind), boardSize));
+                    if (behind == ahead) {
+                        if (value > profit(i, behind)) {
+                            offer(2 * i, behind, value);
+                        }
+                    } else {
+                        offer(2 * i + 1, behind, value);
+                    }
+                }
+            }
+            storeStart = new int[stores.size() + 1];
+            for (int k = 0; k < store.length; k++) {
+                if (store[k] >= 0) {
+                    storeStart[store[k] + 1]++;
+                }
+            }
+            for (int j = 0; j < stores.size(); j++) {
+                storeStart[j + 1] += storeStart[j];
+            }
+            byStore = new int[storeStart[stores.size()]];
+            int[] next = Arrays.copyOf(storeStart, stores.size());
+            for (int k = 0; k < store.length; k++) {
+                if (store[k] >= 0) {
+                    byStore[next[store[k]]++] = k;
+                }
+            }
+        }
+
+        /** Solo se guardan las opciones rentables */
+        private void offer(int option, int storeIndex, int value) {
+            if (value > 0) {
+                store[option] = storeIndex;
+                profit[option] = value;
+            } else if (store[option] == storeIndex) {
+                store[option] = -1;
+            }
+        }
+
+        /**
+         * @return Ganancia esperada del robot en la tienda, o 0 si no es una de sus opciones
+         */
+        int profit(int robot, int storeIndex) {
+            for (int k = 2 * robot; k < 2 * robot + 2; k++) {
+                if (store[k] == storeIndex) {
+                    return profit[k];
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public int weight(int row, int col) {
+            return profit(row, col);
+        }
+
+        @Override
+        public void forEachColumn(int row, IntConsumer action) {
+            for (int k = 2 * row; k < 2 * row + 2; k++) {
+                if (store[k] >= 0) {
+                    action.accept(store[k]);
+                }
+            }
+        }
+
+        @Override
+        public void forEachRow(int col, IntConsumer action) {
+            for (int k = storeStart[col]; k < storeStart[col + 1]; k++) {
+                action.accept(byStore[k] / 2);
+            }
+        }
+
+        /**
+         * @return Tienda asignada a cada robot, o -1
+         */
+        int[] solveSparse() {
+            WeightedMatching matching = new WeightedMatching(this);
+            for (int j = 0; j < storeStart.length - 1; j++) {
+                matching.addColumn();
+            }
+            int[] assignment = new int[store.length / 2];
+            for (int i = 0; i < assignment.length; i++) {
+                matching.addRow();
+            }
+            for (int i = 0; i < assignment.length; i++) {
+                assignment[i] = matching.columnOf(i);
+            }
+            return assignment;
+        }
+
+        /**
+         * Resuelve con el algoritmo dado sobre la matriz de los robots con alguna
+         * opción y las tiendas que alguno alcanza.
+         * @return Tienda asignada a cada robot, o -1
+         */
+        int[] solveWith(AssignmentSolver solver) {
+            int[] assignment = new int[store.length / 2];
+            Arrays.fill(assignment, -1);
+            int[] rows = new int[assignment.length];
+            int rowCount = 0;
+            for (int i = 0; i < assignment.length; i++) {
+                if (store[2 * i] >= 0 || store[2 * i + 1] >= 0) {
+                    rows[rowCount++] = i;
+                }
+            }
+            int[] columnOf = new int[storeStart.length - 1];
+            int[] columns = new int[columnOf.length];
+            int columnCount = 0;
+            for (int j = 0; j < columnOf.length; j++) {
+                columnOf[j] = storeStart[j + 1] > storeStart[j] ? columnCount : -1;
+                if (columnOf[j] >= 0) {
+                    columns[columnCount++] = j;
+                }
+            }
+            if (rowCount == 0) {
+                return assignment;
+            }
+            int[][] profits = new int[rowCount][columnCount];
+            for (int r = 0; r < rowCount; r++) {
+                for (int k = 2 * rows[r]; k < 2 * rows[r] + 2; k++) {
+                    if (store[k] >= 0) {
+                        profits[r][columnOf[store[k]]] = profit[k];
+                    }
+                }
+            }
+            int[] compact = solver.solve(profits);
+            for (int r = 0; r < rowCount; r++) {
+                if (compact[r] >= 0) {
+                    assignment[rows[r]] = columns[compact[r]];
+                }
+            }
+            return assignment;
+        }
+    }
+
+    /**
+     * @return Índice de la primera tienda después del robot en sentido circular,
+     *         o -1 si la única tienda está en su casilla
+     */
+    private static int nearestAhead(Robot robot, List<Store> stores) {
+        int location = robot.getLocation();
+        int lo = 0;
+        int hi = stores.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stores.get(mid).getLocation() <= location) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int index = lo < stores.size() ? lo : 0;
+        return stores.get(index).getLocation() == location ? -1 : index;
+    }
+
+    /**
+     * @return Índice de la última tienda antes del robot en sentido circular,
+     *         o -1 si la única tienda está en su casilla
+     */
+    private static int nearestBehind(Robot robot, List<Store> stores) {
+        int location = robot.getLocation();
+        int lo = 0;
+        int hi = stores.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stores.get(mid).getLocation() < location) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int index = lo > 0 ? lo - 1 : stores.size() - 1;
+        return stores.get(index).getLocation() == location ? -1 : index;
+    }
+
+    private static int forward(Robot robot, Store store, int boardSize) {
+        return Math.floorMod(store.getLocation() - robot.getLocation(), boardSize);
+    }
+
+    /**
+     * Pasos con signo del sentido por el que la tienda da la ganancia de la
+     * matriz; ante un empate se avanza.
+     */
+    private static int bestSteps(Robot robot, List<Store> stores, int store, int boardSize) {
+        Store target = stores.get(store);
+        int forward = forward(robot, target, boardSize);
+        int backward = boardSize - forward;
+        if (robot.canMoveBackward() && nearestBehind(robot, stores) == store
+                && (nearestAhead(robot, stores) != store
+                    || profitOver(robot, target, backward) > profitOver(robot, target, forward))) {
+            return -backward;
+        }
+        return forward;
+    }
+
+    /**
+     * Ordena los movimientos para que cada uno mueva al robot asignado. Si un
+     * robot parte de la tienda asignada a otro, sale antes de que el otro llegue,
+     * porque {@link SilkRoad#moveRobot(int, int)} mueve al primero colocado de
+     * la casilla. En un ciclo de robots que se reemplazan unos a otros se empieza
+     * por uno cuyo reemplazo fue colocado antes que él, así que al llegar al
+     * final del ciclo el robot que espera sigue siendo el primero de su casilla.
+     * @param moves Filas {ubicación del robot, pasos, ubicación de la tienda, ganancia}
+     * @param movers Robot de cada fila
+     */
+    private static int[][] executionOrder(List<int[]> moves, List<Robot> movers) {
+        int n = moves.size();
+        Map<Integer, Integer> leaving = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            leaving.put(moves.get(i)[0], i);
+        }
+        // next[i]: movimiento que parte de la tienda a la que llega i
+        int[] next = new int[n];
+        int[] previous = new int[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(previous, -1);
+        for (int i = 0; i < n; i++) {
+            Integer j = leaving.get(moves.get(i)[2]);
+            if (j != null) {
+                next[i] = j;
+                previous[j] = i;
+            }
+        }
+        List<int[]> ordered = new ArrayList<>();
+        boolean[] done = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (next[i] == -1) {
+                for (int k = i; k != -1; k = previous[k]) {
+                    ordered.add(moves.get(k));
+                    done[k] = true;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (!done[i]) {
+                int first = i;
+                while (movers.get(next[first]).sequence > movers.get(first).sequence) {
+                    first = next[first];
+                }
+                for (int k = first; !done[k]; k = previous[k]) {
+                    ordered.add(moves.get(k));
+                    done[k] = true;
+                }
+            }
+        }
+        return ordered.toArray(new int[0][]);
+    }
+
+    private static int profitOver(Robot robot, Store store, int distance) {
+        int cost = robot.getMovementCost(distance);
+        return store.estimateYield(robot, robot.getTenges() - cost) - cost;
+    }
+}
@@ -41,6 +41,22 @@ public class FighterStore extends Store {
         return COLOR;
     }
 
+    /**
+     * Solo entrega sus tenges si el robot llega con más tenges que la tienda.
+     */
+    @Override
+    public int estimateYield(Robot robot, int robotTenges, int storeTenges) {
+        return storeTenges > 0 && robotTenges > storeTenges ? storeTenges : 0;
+    }
+
+    /**
+     * Rechaza a los robots que no llegan con más tenges que la tienda.
+     */
+    @Override
+    public boolean refuses(Robot robot, int robotTenges, int storeTenges) {
+        return storeTenges > 0 && robotTenges <= storeTenges;
+    }
+
     /**
      * Implementa la mecánica de comercio basada en poder económico.
      * 
@@ -66,7 +82,7 @@ public class FighterStore extends Store {
                 collected += tenges;
                 tenges = 0;
                 timesEmptied++;
-                updateView();
+                stateChanged();
                 System.out.println("FighterStore en " + (location + 1) + 
                                  ": Robot con " + robot.getTenges() + 
                                  " tenges venció y tomó " + amount + " tenges.");
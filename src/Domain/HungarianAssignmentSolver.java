@@ -0,0 +1,27 @@
+package Domain;
+
+/**
+ * Resuelve la asignación como un emparejamiento bipartito de peso máximo
+ * usando el método húngaro.
+ *
+ * <p>Obtiene la misma ganancia máxima que {@link BacktrackingAssignmentSolver}
+ * en tiempo polinomial O(R² × S), lo que permite resolver tableros con miles
+ * de robots y tiendas.
+ */
+public class HungarianAssignmentSolver implements AssignmentSolver {
+    @Override
+    public int[] solve(int[][] profits) {
+        int robotCount = profits.length;
+        int storeCount = robotCount == 0 ? 0 : profits[0].length;
+        WeightedMatching matching = new WeightedMatching((i, j) -> profits[i][j], storeCount);
+        int[] assignment = new int[robotCount];
+        for (int i = 0; i < robotCount; i++) {
+            matching.addRow();
+        }
+        for (int i = 0; i < robotCount; i++) {
+            int j = matching.columnOf(i);
+            assignment[i] = (j >= 0 && profits[i][j] > 0) ? j : -1;
+        }
+        return assignment;
+    }
+}
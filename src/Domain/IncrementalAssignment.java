@@ -0,0 +1,137 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Mantiene la asignación óptima del concurso a medida que llegan los eventos
+ * de cada día, sin reconstruir el tablero ni resolver desde cero.
+ *
+ * <p>Cada día agrega un robot o una tienda: el emparejamiento del día anterior
+ * sigue siendo óptimo para los elementos ya existentes y solo se repara con un
+ * camino aumentante desde el elemento nuevo. Únicamente cuando la entrada obliga
+ * a agrandar el tablero (y con ello cambian las distancias circulares) se vuelve
+ * a calcular el emparejamiento completo.
+ *
+ * <p>Un robot solo gana en tiendas a menos distancia que sus tenges, así que el
+ * emparejamiento recorre únicamente esas parejas, buscadas por posición.
+ */
+class IncrementalAssignment implements WeightedMatching.Edges {
+    private final List<Robot> robots = new ArrayList<>();
+    private final List<Store> stores = new ArrayList<>();
+    private final Set<Integer> occupied = new HashSet<>();
+    /** Índices de robots y tiendas por ubicación (0-based) */
+    private final NavigableMap<Integer, Integer> robotsByLocation = new TreeMap<>();
+    private final NavigableMap<Integer, Integer> storesByLocation = new TreeMap<>();
+    private int maxTenges = 0;
+    private int maxLocation = 0;
+    /** Casillas del tablero; a lo sumo {@link Integer#MAX_VALUE}, como en {@link SilkRoad} */
+    private long boardSize = 0;
+    private WeightedMatching matching = newMatching();
+
+    /**
+     * Aplica el evento de un día.
+     * Formato: {tipo, ubicación, [tenges para tiendas]}, igual que en {@link SilkRoad#SilkRoad(int[][])}.
+     * Los eventos inválidos (incluidas las tiendas con tenges negativos) o en
+     * ubicaciones ocupadas se ignoran sin ocupar la casilla, como en el tablero.
+     *
+     * @param event Evento del día
+     * @return Ganancia máxima del día tras aplicar el evento
+     * @throws IllegalArgumentException Si la ubicación exige un tablero de más
+     *         de {@link Integer#MAX_VALUE} casillas
+     */
+    long addEvent(int[] event) {
+        if (event.length > 1) {
+            int location = Math.max(maxLocation, event[1]);
+            long size = (long) Math.ceil(Math.sqrt((long) location + 1));
+            long cells = size * size;
+            if (cells > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Board too large: " + size + " cells per side");
+            }
+            maxLocation = location;
+            if (cells != boardSize) {
+                boardSize = cells;
+                rebuild();
+            }
+        }
+        int type = event[0];
+        if (type == 1 && event.length > 1 && canPlace(event[1])) {
+            robotsByLocation.put(event[1] - 1, robots.size());
+            robots.add(new NormalRobot(event[1] - 1));
+            matching.addRow();
+        } else if (type == 2 && event.length > 2 && event[2] >= 0 && canPlace(event[1])) {
+            storesByLocation.put(event[1] - 1, stores.size());
+            Store store = new NormalStore(event[1] - 1, event[2]);
+            stores.add(store);
+            maxTenges = Math.max(maxTenges, store.getTenges());
+            matching.addColumn();
+        }
+        return matching.totalWeight();
+    }
+
+    private boolean canPlace(int location) {
+        return location >= 1 && occupied.add(location - 1);
+    }
+
+    @Override
+    public int weight(int row, int col) {
+        return SilkRoadContest.assignmentProfit(robots.get(row), stores.get(col), (int) boardSize);
+    }
+
+    @Override
+    public void forEachColumn(int row, IntConsumer action) {
+        forEachNear(storesByLocation, robots.get(row).getLocation(), maxTenges, action);
+    }
+
+    @Override
+    public void forEachRow(int col, IntConsumer action) {
+        Store store = stores.get(col);
+        forEachNear(robotsByLocation, store.getLocation(), store.getTenges(), action);
+    }
+
+    /**
+     * Recorre los índices ubicados a distancia circular menor que {@code radius}
+     * de {@code center}.
+     */
+    private void forEachNear(NavigableMap<Integer, Integer> byLocation, int center, int radius,
+                             IntConsumer action) {
+        if (radius <= 0) {
+            return;
+        }
+        int reach = radius - 1;
+        if (2L * reach + 1 >= boardSize) {
+            byLocation.values().forEach(action::accept);
+            return;
+        }
+        long low = (long) center - reach;
+        long high = (long) center + reach;
+        if (low < 0) {
+            byLocation.headMap((int) high, true).values().forEach(action::accept);
+            byLocation.tailMap((int) (low + boardSize), true).values().forEach(action::accept);
+        } else if (high >= boardSize) {
+            byLocation.tailMap((int) low, true).values().forEach(action::accept);
+            byLocation.headMap((int) (high - boardSize), true).values().forEach(action::accept);
+        } else {
+            byLocation.subMap((int) low, true, (int) high, true).values().forEach(action::accept);
+        }
+    }
+
+    private WeightedMatching newMatching() {
+        return new WeightedMatching(this);
+    }
+
+    private void rebuild() {
+        matching = newMatching();
+        for (int j = 0; j < stores.size(); j++) {
+            matching.addColumn();
+        }
+        for (int i = 0; i < robots.size(); i++) {
+            matching.addRow();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package Domain;
+
+class InvalidLocationException extends Exception {
+    public InvalidLocationException(String message) {
+        super(message);
+    }
+}
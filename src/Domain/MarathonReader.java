@@ -0,0 +1,198 @@
+package Domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee la entrada de la maratón en el formato de texto de la ICPC sin cargarla
+ * completa en memoria: una línea con el número de días y luego, por día,
+ * {@code 1 ubicación} para un robot o {@code 2 ubicación tenges} para una tienda.
+ *
+ * <p>Los números se leen byte a byte desde un buffer reutilizado y cada evento
+ * se entrega en uno de dos arreglos fijos, con el mismo formato que recibe
+ * {@link SilkRoad#SilkRoad(int[][])}. Leer un evento no crea objetos.
+ *
+ * <p>Cerrar el lector cierra el canal del que lee. Si el canal no es
+ * bloqueante, la lectura espera con un selector a que haya datos.
+ */
+public class MarathonReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final int[] robotEvent = new int[2];
+    private final int[] storeEvent = new int[3];
+    private int dayCount = -1;
+    private int daysRead = 0;
+    /** Selector para esperar datos de un canal no bloqueante; se crea al necesitarlo */
+    private Selector selector;
+
+    /**
+     * @param channel Canal con la entrada en formato de texto
+     */
+    public MarathonReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip();
+    }
+
+    /**
+     * Lee una entrada que ya está completa en memoria, por ejemplo un archivo mapeado.
+     * @param contents Contenido de la entrada, desde su posición hasta su límite
+     */
+    public MarathonReader(ByteBuffer contents) {
+        this.channel = null;
+        this.buffer = contents;
+    }
+
+    /**
+     * Abre un archivo de entrada mapeándolo en memoria; si es demasiado grande
+     * para un solo mapeo se lee por partes desde el canal, que queda abierto
+     * hasta cerrar el lector.
+     * @param file Archivo con la entrada de la maratón
+     */
+    public static MarathonReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        if (channel.size() > Integer.MAX_VALUE) {
+            return new MarathonReader(channel);
+        }
+        try (FileChannel mapped = channel) {
+            return new MarathonReader(mapped.map(FileChannel.MapMode.READ_ONLY, 0, mapped.size()));
+        }
+    }
+
+    /**
+     * @return Número de días declarado en la primera línea de la entrada
+     */
+    public int dayCount() throws IOException {
+        if (dayCount < 0) {
+            long value = nextNumber();
+            dayCount = value < 0 ? 0 : (int) value;
+        }
+        return dayCount;
+    }
+
+    /**
+     * Lee el evento del día siguiente. El arreglo devuelto se reutiliza y solo
+     * es válido hasta la siguiente llamada.
+     * @return {tipo, ubicación} o {tipo, ubicación, tenges}, o null si no hay más días
+     * @throws IOException si falla la lectura o la entrada termina a mitad de un evento
+     */
+    public int[] next() throws IOException {
+        if (daysRead >= dayCount()) {
+            return null;
+        }
+        long type = nextNumber();
+        if (type == Long.MIN_VALUE) {
+            return null;
+        }
+        int[] event = type == 2 ? storeEvent : robotEvent;
+        event[0] = (int) type;
+        for (int i = 1; i < event.length; i++) {
+            long value = nextNumber();
+            if (value == Long.MIN_VALUE) {
+                throw new IOException("La entrada termina a mitad del día " + (daysRead + 1));
+            }
+            event[i] = (int) value;
+        }
+        daysRead++;
+        return event;
+    }
+
+    /**
+     * @return El siguiente entero de la entrada o Long.MIN_VALUE al final
+     */
+    private long nextNumber() throws IOException {
+        int c = nextByte();
+        while (c >= 0 && c != '-' && (c < '0' || c > '9')) {
+            c = nextByte();
+        }
+        if (c < 0) {
+            return Long.MIN_VALUE;
+        }
+        boolean negative = c == '-';
+        if (negative) {
+            c = nextByte();
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            c = nextByte();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return El siguiente byte o -1 al final de la entrada
+     */
+    private int nextByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (channel == null) {
+                return -1;
+            }
+            buffer.clear();
+            int read = channel.read(buffer);
+            while (read == 0) {
+                awaitData();
+                read = channel.read(buffer);
+            }
+            buffer.flip();
+            if (read < 0) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Espera a que el canal tenga datos. Un canal bloqueante nunca lee cero
+     * bytes con espacio en el buffer; para un canal no bloqueante que no admite
+     * selectores solo queda ceder el procesador antes de reintentar.
+     */
+    private void awaitData() throws IOException {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            if (selector == null) {
+                selector = Selector.open();
+                ((SelectableChannel) channel).register(selector, SelectionKey.OP_READ);
+            }
+            selector.select();
+            selector.selectedKeys().clear();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Cierra el selector usado para esperar datos sin cerrar el canal, que
+     * deja de estar registrado y puede volver a ser bloqueante.
+     */
+    void releaseSelector() throws IOException {
+        if (selector != null) {
+            Selector open = selector;
+            selector = null;
+            open.close();
+        }
+    }
+
+    /**
+     * Cierra el canal de la entrada, si lo hay.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            releaseSelector();
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estima la ganancia esperada de un escenario con azar (casinos, tiendas
+ * autónomas) repitiéndolo muchas veces en paralelo.
+ *
+ * <p>Cada réplica juega el escenario en una ruta propia, sin vista gráfica y
+ * con su propia rama del generador, así que las réplicas no comparten estado.
+ * Las ramas se obtienen en orden desde una semilla maestra antes de repartir
+ * las tareas: con la misma semilla se obtienen exactamente las mismas muestras,
+ * sin importar cuántos hilos las calculen.
+ *
+ * <p>Las réplicas se ejecutan en lotes de {@link #BATCH_SIZE}. Si se pide una
+ * precisión, la simulación se detiene en cuanto el intervalo de confianza del
+ * 95% de la media es lo bastante angosto. Para decidirlo se llevan la media y
+ * la varianza acumuladas (algoritmo de Welford); las ganancias se ordenan una
+ * sola vez, al final, para los percentiles.
+ */
+public class MonteCarloSimulation {
+    /** Réplicas por lote; fijo para que la detención temprana sea reproducible */
+    public static final int BATCH_SIZE = 256;
+    /** Cuantil de la normal estándar para un intervalo de confianza del 95% */
+    private static final double Z_95 = 1.959963984540054;
+
+    private final int boardSize;
+    private final Scenario scenario;
+    private final ExecutorService executor;
+
+    /**
+     * Operaciones que se aplican a una ruta vacía en cada réplica.
+     */
+    public interface Scenario {
+        void play(SilkRoad road) throws Exception;
+    }
+
+    /**
+     * Resumen estadístico de la ganancia final de las réplicas.
+     */
+    public static class Estimate {
+        private final int[] sortedProfits;
+        private final double mean;
+        private final double variance;
+
+        /**
+         * @param profits Ganancia de cada réplica; el arreglo se ordena y pasa a ser del resumen
+         * @param mean Media de las ganancias
+         * @param variance Varianza muestral de las ganancias
+         */
+        Estimate(int[] profits, double mean, double variance) {
+            this.sortedProfits = profits;
+            Arrays.sort(sortedProfits);
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        public int getReplicas() {
+            return sortedProfits.length;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * @return Varianza muestral de la ganancia
+         */
+        public double getVariance() {
+            return variance;
+        }
+
+        /**
+         * @return Error estándar de la media
+         */
+        public double getStandardError() {
+            return sortedProfits.length == 0 ? 0 : Math.sqrt(variance / sortedProfits.length);
+        }
+
+        /**
+         * @return Límite inferior del intervalo de confianza del 95% de la media
+         */
+        public double getConfidenceLow() {
+            return mean - Z_95 * getStandardError();
+        }
+
+        /**
+         * @return Límite superior del intervalo de confianza del 95% de la media
+         */
+        public double getConfidenceHigh() {
+            return mean + Z_95 * getStandardError();
+        }
+
+        /**
+         * Percentil de la ganancia, interpolando entre las muestras vecinas.
+         * @param percent Percentil entre 0 y 100
+         */
+        public double percentile(double percent) {
+            if (percent < 0 || percent > 100 || sortedProfits.length == 0) {
+                throw new IllegalArgumentException("Invalid percentile: " + percent);
+            }
+            double rank = percent / 100 * (sortedProfits.length - 1);
+            int below = (int) Math.floor(rank);
+            int above = Math.min(below + 1, sortedProfits.length - 1);
+            return sortedProfits[below] + (rank - below) * (sortedProfits[above] - sortedProfits[below]);
+        }
+    }
+
+    /**
+     * Crea una simulación que reparte las réplicas en el pool común.
+     * @param boardSize Número de casillas por lado de la ruta de cada réplica
+     * @param scenario Operaciones de cada réplica
+     */
+    public MonteCarloSimulation(int boardSize, Scenario scenario) {
+        this(boardSize, scenario, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param boardSize Número de casillas por lado de la ruta de cada réplica
+     * @param scenario Operaciones de cada réplica
+     * @param executor Ejecutor de las réplicas
+     */
+    public MonteCarloSimulation(int boardSize, Scenario scenario, ExecutorService executor) {
+        this.boardSize = boardSize;
+        this.scenario = scenario;
+        this.executor = executor;
+    }
+
+    /**
+     * Ejecuta exactamente el número de réplicas indicado.
+     * @param replicas Número de réplicas
+     * @param seed Semilla maestra
+     * @throws CompletionException si alguna réplica falla o se interrumpe la espera
+     */
+    public Estimate run(int replicas, long seed) {
+        return run(replicas, seed, 0);
+    }
+
+    /**
+     * Ejecuta réplicas por lotes hasta que la mitad del intervalo de confianza
+     * del 95% sea a lo sumo {@code halfWidth}, o hasta llegar al máximo.
+     * @param maxReplicas Máximo de réplicas
+     * @param seed Semilla maestra
+     * @param halfWidth Precisión buscada para la media; 0 para no detenerse antes
+     * @throws CompletionException si alguna réplica falla o se interrumpe la espera
+     */
+    public Estimate run(int maxReplicas, long seed, double halfWidth) {
+        if (maxReplicas < 1) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        SplittableRandom master = new SplittableRandom(seed);
+        // Crece por lotes: con la parada temprana solo se guardan las muestras tomadas
+        int[] profits = new int[Math.min(maxReplicas, BATCH_SIZE)];
+        int done = 0;
+        double mean = 0;
+        // Suma de los cuadrados de las desviaciones respecto de la media
+        double squares = 0;
+        while (done < maxReplicas) {
+            int batch = Math.min(BATCH_SIZE, maxReplicas - done);
+            if (done + batch > profits.length) {
+                profits = Arrays.copyOf(profits, (int) Math.min(maxReplicas, Math.max(2L * profits.length, done + batch)));
+            }
+            List<Callable<Integer>> tasks = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                RandomGenerator.SplittableGenerator random = master.split();
+                tasks.add(() -> playOne(random));
+            }
+            try {
+                for (Future<Integer> future : executor.invokeAll(tasks)) {
+                    int profit = future.get();
+                    profits[done++] = profit;
+                    double delta = profit - mean;
+                    mean += delta / done;
+                    squares += delta * (profit - mean);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            }
+            if (halfWidth > 0 && done > 1 && Z_95 * Math.sqrt(squares / (done - 1) / done) <= halfWidth) {
+                break;
+            }
+        }
+        int[] samples = done == profits.length ? profits : Arrays.copyOf(profits, done);
+        return new Estimate(samples, mean, done < 2 ? 0 : squares / (done - 1));
+    }
+
+    private int playOne(RandomGenerator.SplittableGenerator random) throws Exception {
+        SilkRoad road = new SilkRoad(boardSize, false);
+        road.setRandom(random);
+        scenario.play(road);
+        return road.profit();
+    }
+}
@@ -0,0 +1,128 @@
+package Domain;
+
+/**
+ * Elige el mejor movimiento de cada robot en {@link SilkRoad#moveRobots()} sin
+ * evaluar todas las tiendas del tablero.
+ *
+ * <p>Recorre las tiendas con tenges en orden de distancia al robot, avanzando a
+ * la vez en ambos sentidos del índice circular de tiendas, y se detiene en
+ * cuanto ni siquiera la tienda más rica podría superar la mejor ganancia
+ * encontrada a esa distancia. Supone, como todos los robots actuales, que el
+ * costo de movimiento no disminuye con la distancia y que lo recolectado no
+ * disminuye con los tenges de la tienda.
+ *
+ * <p>Los planes solo leen el estado de la ruta, por lo que pueden calcularse en
+ * paralelo. El resultado coincide con evaluar todas las tiendas: ante empates
+ * se elige la tienda colocada primero.
+ */
+class MovePlanner {
+    private final StoreIndex index;
+    private final int boardSize;
+    /** Cota superior de los tenges de cualquier tienda durante el turno */
+    private final int maxTenges;
+
+    /**
+     * Movimiento elegido para un robot.
+     */
+    static class Plan {
+        /** Ubicación del robot cuando se calculó el plan */
+        final int origin;
+        /** Tienda objetivo, o null si ningún movimiento es rentable */
+        final Store target;
+        /** Pasos con signo a entregar a moveRobot */
+        final int steps;
+
+        Plan(int origin, Store target, int steps) {
+            this.origin = origin;
+            this.target = target;
+            this.steps = steps;
+        }
+
+        /**
+         * Un plan sigue siendo óptimo mientras el robot no se haya movido y su
+         * tienda objetivo conserve tenges: durante un turno las tiendas solo se
+         * vacían, así que ninguna otra opción pudo mejorar.
+         */
+        boolean isValidFor(Robot robot) {
+            return robot.getLocation() == origin && (target == null || target.getTenges() > 0);
+        }
+    }
+
+    MovePlanner(StoreIndex index, int boardSize) {
+        this.index = index;
+        this.boardSize = boardSize;
+        this.maxTenges = index.maxTenges();
+    }
+
+    /**
+     * Calcula el movimiento más rentable del robot con el estado actual de la ruta.
+     */
+    Plan plan(Robot robot) {
+        int location = robot.getLocation();
+        int remaining = index.nonEmptyCount();
+        if (remaining == 0) {
+            return new Plan(location, null, 0);
+        }
+        boolean backward = robot.canMoveBackward();
+        int bound = robot.collectFromStore(maxTenges);
+
+        Store forwardStore = index.nextNonEmpty(location);
+        int forwardLeft = remaining;
+        Store backwardStore = backward ? index.previousNonEmpty(location) : null;
+        int backwardLeft = backward ? remaining : 0;
+
+        Store best = null;
+        int bestProfit = Integer.MIN_VALUE;
+        int bestSteps = 0;
+        while (forwardLeft > 0 || backwardLeft > 0) {
+            int forwardDistance = forwardLeft > 0
+                ? index.distance(location, forwardStore.getLocation(), 1) : Integer.MAX_VALUE;
+            int backwardDistance = backwardLeft > 0
+                ? index.distance(location, backwardStore.getLocation(), -1) : Integer.MAX_VALUE;
+            boolean takeForward = forwardDistance <= backwardDistance;
+            int distance = Math.min(forwardDistance, backwardDistance);
+
+            // Ninguna tienda a esta distancia o más lejos puede mejorar lo encontrado
+            long upperBound = (long) bound - robot.getMovementCost(distance);
+            if (upperBound <= 0 || upperBound < bestProfit) {
+                break;
+            }
+
+            Store store;
+            if (takeForward) {
+                store = forwardStore;
+                forwardStore = index.nextNonEmpty(store.getLocation());
+                forwardLeft--;
+            } else {
+                store = backwardStore;
+                backwardStore = index.previousNonEmpty(store.getLocation());
+                backwardLeft--;
+            }
+
+            int distFwd = Math.floorMod(store.getLocation() - location, boardSize);
+            int distBwd = Math.floorMod(location - store.getLocation(), boardSize);
+            int shortestDist;
+            int direction;
+            if (backward) {
+                shortestDist = Math.min(distFwd, distBwd);
+                direction = (distFwd <= distBwd) ? 1 : -1;
+            } else {
+                shortestDist = distFwd;
+                direction = 1;
+            }
+            if (shortestDist == 0) continue;
+
+            int profit = robot.collectFromStore(store.getTenges()) - robot.getMovementCost(shortestDist);
+            if (profit > bestProfit || (profit == bestProfit && best != null && store.sequence < best.sequence)) {
+                bestProfit = profit;
+                best = store;
+                bestSteps = shortestDist * direction;
+            }
+        }
+
+        if (best != null && bestProfit > 0) {
+            return new Plan(location, best, bestSteps);
+        }
+        return new Plan(location, null, 0);
+    }
+}
@@ -79,7 +79,7 @@ public class NormalStore extends Store {
             collected += tenges;
             tenges = 0;
             timesEmptied++;
-            updateView();
+            stateChanged();
             return robot.collectFromStore(amount);
         }
         return 0;
@@ -0,0 +1,7 @@
+package Domain;
+
+class OccupiedLocationException extends Exception {
+    public OccupiedLocationException(String message) {
+        super(message);
+    }
+}
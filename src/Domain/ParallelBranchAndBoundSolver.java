@@ -0,0 +1,218 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resuelve la asignación de forma exacta con ramificación y poda en paralelo.
+ *
+ * <p>Explora las mismas combinaciones que {@link BacktrackingAssignmentSolver},
+ * pero descarta una rama en cuanto la ganancia acumulada más una cota superior
+ * no supera la mejor solución conocida. La cota suma, para cada robot que falta,
+ * su tienda más rentable entre las que siguen libres. La mejor solución se
+ * comparte entre todos los hilos en un entero atómico, de modo que lo que
+ * encuentra una rama poda de inmediato a las demás.
+ *
+ * <p>Los primeros niveles del árbol se reparten como tareas de un
+ * {@link ForkJoinPool}, que equilibra la carga robando trabajo; a partir de
+ * {@code splitDepth} cada tarea sigue en profundidad sin crear más tareas.
+ * Los robots se exploran de mayor a menor ganancia posible y sus tiendas de
+ * mayor a menor ganancia, para encontrar pronto buenas soluciones.
+ */
+public class ParallelBranchAndBoundSolver implements AssignmentSolver {
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Crea un solucionador que reparte los tres primeros niveles en el pool común.
+     */
+    public ParallelBranchAndBoundSolver() {
+        this(ForkJoinPool.commonPool(), 3);
+    }
+
+    /**
+     * @param pool Pool donde se ejecutan las ramas
+     * @param splitDepth Niveles del árbol (robots) que se reparten como tareas
+     */
+    public ParallelBranchAndBoundSolver(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    @Override
+    public int[] solve(int[][] profits) {
+        Search search = new Search(profits, splitDepth);
+        if (profits.length > 0) {
+            int[] assignment = new int[profits.length];
+            Arrays.fill(assignment, -1);
+            pool.invoke(search.new Branch(0, 0, new boolean[profits[0].length], assignment));
+        }
+        return search.bestAssignment();
+    }
+
+    /** Estado compartido de una búsqueda */
+    private static class Search {
+        private final int[][] profits;
+        /** Niveles que se reparten como tareas */
+        private final int splitDepth;
+        /** Robots en el orden en que se deciden */
+        private final int[] order;
+        /** Tiendas rentables de cada robot, de mayor a menor ganancia */
+        private final int[][] candidates;
+        private final AtomicInteger bestProfit = new AtomicInteger();
+        private int[] best;
+
+        Search(int[][] profits, int splitDepth) {
+            this.profits = profits;
+            this.splitDepth = splitDepth;
+            int robotCount = profits.length;
+            candidates = new int[robotCount][];
+            Integer[] robots = new Integer[robotCount];
+            for (int i = 0; i < robotCount; i++) {
+                robots[i] = i;
+                int[] row = profits[i];
+                List<Integer> positive = new ArrayList<>();
+                for (int j = 0; j < row.length; j++) {
+                    if (row[j] > 0) {
+                        positive.add(j);
+                    }
+                }
+                positive.sort(Comparator.comparingInt(j -> -row[j]));
+                candidates[i] = positive.stream().mapToInt(Integer::intValue).toArray();
+            }
+            Arrays.sort(robots, Comparator.comparingInt(i -> -topProfit(i)));
+            order = Arrays.stream(robots).mapToInt(Integer::intValue).toArray();
+            best = new int[robotCount];
+            Arrays.fill(best, -1);
+            seedWithGreedy();
+        }
+
+        private int topProfit(int robot) {
+            return candidates[robot].length == 0 ? 0 : profits[robot][candidates[robot][0]];
+        }
+
+        /**
+         * Toma como primera solución la de asignar a cada robot, en orden, su
+         * mejor tienda libre.
+         */
+        private void seedWithGreedy() {
+            boolean[] used = new boolean[profits.length == 0 ? 0 : profits[0].length];
+            int[] assignment = new int[profits.length];
+            Arrays.fill(assignment, -1);
+            int total = 0;
+            for (int robot : order) {
+                for (int store : candidates[robot]) {
+                    if (!used[store]) {
+                        used[store] = true;
+                        assignment[robot] = store;
+                        total += profits[robot][store];
+                        break;
+                    }
+                }
+            }
+            offer(total, assignment);
+        }
+
+        /**
+         * Cota superior de lo que pueden sumar los robots desde {@code level}.
+         */
+        private int bound(int level, boolean[] used) {
+            int sum = 0;
+            for (int k = level; k < order.length; k++) {
+                int robot = order[k];
+                for (int store : candidates[robot]) {
+                    if (!used[store]) {
+                        sum += profits[robot][store];
+                        break;
+                    }
+                }
+            }
+            return sum;
+        }
+
+        private synchronized void offer(int profit, int[] assignment) {
+            if (profit > bestProfit.get()) {
+                best = assignment.clone();
+                bestProfit.set(profit);
+            }
+        }
+
+        synchronized int[] bestAssignment() {
+            return best.clone();
+        }
+
+        /**
+         * Búsqueda secuencial en profundidad desde el nivel dado.
+         * @param assignment Tienda elegida por cada robot (índice original), o -1
+         */
+        void explore(int level, int profit, boolean[] used, int[] assignment) {
+            if (profit + bound(level, used) <= bestProfit.get()) {
+                return;
+            }
+            if (level == order.length) {
+                offer(profit, assignment);
+                return;
+            }
+            int robot = order[level];
+            for (int store : candidates[robot]) {
+                if (!used[store]) {
+                    used[store] = true;
+                    assignment[robot] = store;
+                    explore(level + 1, profit + profits[robot][store], used, assignment);
+                    assignment[robot] = -1;
+                    used[store] = false;
+                }
+            }
+            explore(level + 1, profit, used, assignment);
+        }
+
+        /**
+         * Rama del árbol que, en los primeros niveles, crea una tarea por
+         * cada elección del robot actual.
+         */
+        class Branch extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int level;
+            private final int profit;
+            private final boolean[] used;
+            private final int[] assignment;
+
+            Branch(int level, int profit, boolean[] used, int[] assignment) {
+                this.level = level;
+                this.profit = profit;
+                this.used = used;
+                this.assignment = assignment;
+            }
+
+            @Override
+            protected void compute() {
+                if (level >= splitDepth || level == order.length) {
+                    explore(level, profit, used, assignment);
+                    return;
+                }
+                if (profit + bound(level, used) <= bestProfit.get()) {
+                    return;
+                }
+                int robot = order[level];
+                List<Branch> children = new ArrayList<>();
+                for (int store : candidates[robot]) {
+                    if (!used[store]) {
+                        boolean[] childUsed = used.clone();
+                        int[] childAssignment = assignment.clone();
+                        childUsed[store] = true;
+                        childAssignment[robot] = store;
+                        children.add(new Branch(level + 1, profit + profits[robot][store], childUsed, childAssignment));
+                    }
+                }
+                children.add(new Branch(level + 1, profit, used.clone(), assignment.clone()));
+                invokeAll(children);
+            }
+        }
+    }
+}
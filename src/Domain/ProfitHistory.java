@@ -0,0 +1,139 @@
+package Domain;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Historial de ganancias de un robot guardado en un arreglo de enteros primitivos.
+ *
+ * <p>Se presenta como una {@code List<Integer>} de solo lectura que lee
+ * directamente el arreglo, sin copiarlo ni guardar objetos Integer. Opcionalmente
+ * puede limitarse a las últimas N ganancias: al llenarse funciona como un buffer
+ * circular y descarta las más antiguas. Solo el robot dueño del historial lo
+ * modifica; los métodos de modificación de la lista lanzan
+ * {@link UnsupportedOperationException}.
+ */
+public class ProfitHistory extends AbstractList<Integer> implements RandomAccess {
+    private int[] data = new int[8];
+    /** Posición de la ganancia más antigua dentro de {@code data} */
+    private int start = 0;
+    private int size = 0;
+    /** Máximo de ganancias guardadas, o 0 si no hay límite */
+    private int limit = 0;
+    /** Ganancias registradas desde el último reinicio, incluidas las descartadas */
+    private long recorded = 0;
+
+    /**
+     * Registra la ganancia de un movimiento.
+     */
+    void record(int profit) {
+        recorded++;
+        if (limit > 0 && size == limit) {
+            data[start] = profit;
+            start = (start + 1) % data.length;
+            return;
+        }
+        if (size == data.length) {
+            grow(limit > 0 ? Math.min(limit, data.length * 2) : data.length * 2);
+        }
+        data[(start + size) % data.length] = profit;
+        size++;
+    }
+
+    /**
+     * @return La ganancia en la posición indicada, sin crear objetos
+     */
+    public int getInt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return data[(start + index) % data.length];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Número de ganancias registradas, incluidas las descartadas por el límite
+     */
+    public long recordedCount() {
+        return recorded;
+    }
+
+    /**
+     * Limita el historial a las últimas ganancias; si ya tiene más, descarta las antiguas.
+     * @param maxEntries Máximo de ganancias a guardar, o 0 para no limitar
+     */
+    void setLimit(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        if (maxEntries > 0 && size > maxEntries) {
+            start = (start + size - maxEntries) % data.length;
+            size = maxEntries;
+        }
+        limit = maxEntries;
+        grow(limit > 0 ? Math.min(limit, Math.max(8, size)) : Math.max(8, size));
+    }
+
+    /**
+     * @return Máximo de ganancias guardadas, o 0 si no hay límite
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Copia las ganancias, en orden, a partir de la posición dada del arreglo destino.
+     */
+    public void copyTo(int[] destination, int offset) {
+        int first = Math.min(size, data.length - start);
+        System.arraycopy(data, start, destination, offset, first);
+        System.arraycopy(data, 0, destination, offset + first, size - first);
+    }
+
+    /**
+     * El historial es de solo lectura.
+     * @throws UnsupportedOperationException Siempre
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Descarta todas las ganancias registradas, conservando el límite.
+     */
+    void reset() {
+        start = 0;
+        size = 0;
+        recorded = 0;
+    }
+
+    /**
+     * Reemplaza el contenido por las ganancias {@code profits[from..to)}.
+     */
+    void restore(int[] profits, int from, int to) {
+        reset();
+        for (int i = from; i < to; i++) {
+            record(profits[i]);
+        }
+    }
+
+    /**
+     * Cambia la capacidad del arreglo dejando la ganancia más antigua en la posición 0.
+     */
+    private void grow(int capacity) {
+        int[] resized = new int[capacity];
+        copyTo(resized, 0);
+        data = resized;
+        start = 0;
+    }
+}
@@ -1,7 +1,5 @@
 package Domain;
 import Presentation.*;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Representa la base de la inteligencia artificial para los robots que operan en la Ruta de la Seda.
@@ -33,7 +31,23 @@ public abstract class Robot {
     /** Indica si el robot está parpadeando (usado para mostrar el robot más rico) */
     protected boolean isBlinking = false;
     /** Historial de ganancias/pérdidas por movimiento */
-    protected ArrayList<Integer> profitHistory = new ArrayList<>();
+    protected ProfitHistory profitHistory = new ProfitHistory();
+    /** Orden de colocación en la ruta, usado por el índice de ocupación */
+    int sequence;
+    /** Siguiente robot en la misma casilla dentro del índice de ocupación */
+    Robot nextInCell;
+    /** Posición dentro del ranking de riqueza de la ruta, o -1 si no está */
+    int rankInHeap = -1;
+    /** Ruta que contiene al robot, notificada cuando cambian sus tenges */
+    Observer observer;
+
+    /**
+     * Observador interno que permite a la ruta mantener su ganancia total
+     * sin recorrer todos los robots.
+     */
+    interface Observer {
+        void tengesChanged(Robot robot, int delta);
+    }
 
     /**
      * Inicializa un nuevo robot en una posición específica.
@@ -101,8 +115,8 @@ public abstract class Robot {
      */
     public void reboot() {
         location = initialLocation;
-        tenges = 0;
-        profitHistory.clear();
+        changeTenges(0);
+        profitHistory.reset();
     }
     
     /**
@@ -113,19 +127,28 @@ public abstract class Robot {
      * @param profitAmount Ganancia (positiva) o pérdida (negativa) de la transacción
      */
     public void recordProfit(int profitAmount) {
-        profitHistory.add(profitAmount);
+        profitHistory.record(profitAmount);
     }
     
     /**
      * Proporciona el historial completo de transacciones.
      * Útil para análisis de rendimiento y visualización de estrategias.
      * 
-     * @return Lista inmutable del historial de ganancias/pérdidas
+     * @return Vista de solo lectura del historial de ganancias/pérdidas
      */
-    public List<Integer> getProfitHistory() {
+    public ProfitHistory getProfitHistory() {
         return profitHistory;
     }
 
+    /**
+     * Limita el historial a las últimas ganancias; si ya tiene más, descarta las antiguas.
+     * 
+     * @param maxEntries Máximo de ganancias a guardar, o 0 para no limitar
+     */
+    public void setHistoryLimit(int maxEntries) {
+        profitHistory.setLimit(maxEntries);
+    }
+
     public void setView(RobotView v) {
         this.view = v;
         if (isBlinking) {
@@ -145,6 +168,17 @@ public abstract class Robot {
         }
     }
     
+    /**
+     * Restablece el estado guardado en una instantánea del tablero.
+     * @param historyLimit Límite del historial de ganancias, o 0 si no tiene
+     */
+    void restore(int location, int tenges, int historyLimit, int[] history, int from, int to) {
+        this.location = location;
+        changeTenges(tenges);
+        this.profitHistory.setLimit(historyLimit);
+        this.profitHistory.restore(history, from, to);
+    }
+
     // --- Getters y Setters ---
     public int getLocation() { 
         return location; 
@@ -159,11 +193,19 @@ public abstract class Robot {
     }
     
     public void addTenges(int v) { 
-        tenges += v; 
+        changeTenges(tenges + v); 
     }
     
     public void setTenges(int v) { 
-        tenges = v; 
+        changeTenges(v); 
+    }
+
+    private void changeTenges(int v) {
+        int delta = v - tenges;
+        tenges = v;
+        if (observer != null && delta != 0) {
+            observer.tengesChanged(this, delta);
+        }
     }
     
     public void returnToInitial() { 
@@ -0,0 +1,95 @@
+package Domain;
+
+/**
+ * Índice de ocupación que ubica en tiempo constante a los robots de cada casilla.
+ *
+ * <p>Guarda el primer robot de cada casilla en un {@link CellMap}. Como varios
+ * robots pueden terminar en la misma casilla, cada entrada es el primero de una
+ * lista enlazada ordenada por orden de colocación, de modo que una consulta
+ * devuelve el mismo robot que una búsqueda lineal sobre la lista de robots.
+ */
+class RobotIndex {
+    private final CellMap<Robot> cells;
+    /** Aumenta cada vez que un robot entra o sale de una casilla */
+    private int modifications = 0;
+
+    /**
+     * @param cellCount Número total de casillas del tablero
+     * @param sparse true para guardar solo las casillas ocupadas
+     */
+    RobotIndex(int cellCount, boolean sparse) {
+        this.cells = CellMap.create(cellCount, sparse);
+    }
+
+    /**
+     * @return El robot colocado primero entre los que están en la casilla, o null
+     */
+    Robot first(int location) {
+        return cells.get(location);
+    }
+
+    boolean isOccupied(int location) {
+        return cells.get(location) != null;
+    }
+
+    /**
+     * Registra al robot en su ubicación actual.
+     */
+    void add(Robot robot) {
+        modifications++;
+        int location = robot.getLocation();
+        Robot current = cells.get(location);
+        if (current == null || current.sequence > robot.sequence) {
+            robot.nextInCell = current;
+            cells.set(location, robot);
+            return;
+        }
+        while (current.nextInCell != null && current.nextInCell.sequence < robot.sequence) {
+            current = current.nextInCell;
+        }
+        robot.nextInCell = current.nextInCell;
+        current.nextInCell = robot;
+    }
+
+    /**
+     * Retira al robot de su ubicación actual.
+     */
+    void remove(Robot robot) {
+        modifications++;
+        int location = robot.getLocation();
+        Robot current = cells.get(location);
+        if (current == robot) {
+            cells.set(location, robot.nextInCell);
+        } else {
+            while (current != null && current.nextInCell != robot) {
+                current = current.nextInCell;
+            }
+            if (current != null) {
+                current.nextInCell = robot.nextInCell;
+            }
+        }
+        robot.nextInCell = null;
+    }
+
+    /**
+     * Mueve al robot a una nueva ubicación manteniendo el índice sincronizado.
+     */
+    void move(Robot robot, int newLocation) {
+        remove(robot);
+        robot.setLocation(newLocation);
+        add(robot);
+    }
+
+    void clear() {
+        modifications++;
+        cells.clear();
+    }
+
+    /**
+     * @return Contador que cambia cada vez que cambia la ubicación de algún robot,
+     *         útil para saber si un orden calculado antes sigue vigente
+     */
+    int modifications() {
+        return modifications;
+    }
+}
@@ -0,0 +1,144 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Montículo de máximos indexado que mantiene a los robots ordenados por riqueza.
+ *
+ * <p>Cada robot guarda su posición dentro del montículo, de modo que un cambio
+ * en sus tenges se corrige en O(log R) sin buscarlo. El más rico se consulta en
+ * tiempo constante y los K más ricos en O(K log K), sin recorrer a los demás.
+ * Ante un empate gana el robot colocado primero, igual que al recorrer la lista
+ * de robots en orden.
+ */
+class RobotRanking {
+    private Robot[] heap = new Robot[16];
+    private int size = 0;
+
+    void add(Robot robot) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = robot;
+        robot.rankInHeap = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    void remove(Robot robot) {
+        int index = robot.rankInHeap;
+        if (index < 0 || index >= size || heap[index] != robot) {
+            return;
+        }
+        size--;
+        robot.rankInHeap = -1;
+        if (index == size) {
+            heap[size] = null;
+            return;
+        }
+        heap[index] = heap[size];
+        heap[index].rankInHeap = index;
+        heap[size] = null;
+        siftDown(siftUp(index));
+    }
+
+    /**
+     * Recoloca al robot después de que cambiaron sus tenges.
+     */
+    void update(Robot robot) {
+        int index = robot.rankInHeap;
+        if (index < 0 || index >= size || heap[index] != robot) {
+            return;
+        }
+        siftDown(siftUp(index));
+    }
+
+    /**
+     * @return El robot con más tenges, o null si no hay robots
+     */
+    Robot richest() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * @return Los {@code k} robots más ricos, del más rico al menos rico
+     */
+    List<Robot> top(int k) {
+        int count = Math.min(Math.max(k, 0), size);
+        List<Robot> result = new ArrayList<>(count);
+        if (count == 0) {
+            return result;
+        }
+        // Solo se exploran los hijos de los robots ya elegidos
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(
+            (a, b) -> richer(heap[a], heap[b]) ? -1 : 1);
+        frontier.add(0);
+        while (result.size() < count) {
+            int index = frontier.poll();
+            result.add(heap[index]);
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return result;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].rankInHeap = -1;
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return Posición final del robot que estaba en {@code index}
+     */
+    private int siftUp(int index) {
+        Robot robot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!richer(robot, heap[parent])) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(robot, index);
+        return index;
+    }
+
+    private void siftDown(int index) {
+        Robot robot = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && richer(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!richer(heap[child], robot)) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(robot, index);
+    }
+
+    private void place(Robot robot, int index) {
+        heap[index] = robot;
+        robot.rankInHeap = index;
+    }
+
+    private static boolean richer(Robot a, Robot b) {
+        if (a.getTenges() != b.getTenges()) {
+            return a.getTenges() > b.getTenges();
+        }
+        return a.sequence < b.sequence;
+    }
+}
@@ -0,0 +1,504 @@
+package Domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planifica los recorridos de los robots durante varios ciclos de
+ * reabastecimiento, en lugar de elegir un solo movimiento a la vez.
+ *
+ * <p>Un robot se detiene en la primera tienda con tenges de su camino, así que
+ * las tiendas que alcanza en un ciclo forman siempre un arco continuo alrededor
+ * de su posición: unas hacia atrás y otras hacia adelante. Dentro del arco solo
+ * conservan tenges la tienda de la casilla de partida, mientras no se tome, y
+ * las tiendas luchadoras que rechazaron al robot; cruzarlas lo vuelve a
+ * detener, y si entretanto reunió más tenges puede vencerlas. Por eso el mejor
+ * recorrido de un robot en un ciclo se busca por capas de movimientos sobre
+ * estados (tiendas tomadas hacia atrás, tiendas tomadas hacia adelante,
+ * posición del robot, tiendas con tenges dentro del arco), descartando los
+ * estados que ya se alcanzaron con menos movimientos y al menos la misma
+ * ganancia. Sin luchadoras hay O(K²) estados para K movimientos.
+ *
+ * <p>Un robot que empieza sobre una tienda con tenges solo puede tomarla
+ * saliendo de su casilla y volviendo; además de ir a otra tienda y regresar,
+ * puede dar un paso a una casilla vecina vacía y volver, si puede retroceder.
+ *
+ * <p>Los robots se coordinan de forma voraz: en cada ciclo se fija primero el
+ * recorrido más rentable, sus tiendas dejan de estar disponibles y se vuelve a
+ * planificar a los demás. Entre ciclos se supone que todas las tiendas se
+ * reabastecen a sus tenges iniciales. Las ganancias se calculan con
+ * {@link Store#estimateYield(Robot, int, int)}, así que son exactas para las
+ * tiendas normales y autónomas y esperadas para los casinos.
+ *
+ * <p>Los movimientos se expresan por ubicación, como los recibe
+ * {@link SilkRoad#moveRobot(int, int)}. Un robot solo se planifica si es el
+ * primero de su casilla, y no hace paradas intermedias en casillas donde
+ * espera otro robot colocado antes, de modo que ejecutar los movimientos en
+ * orden mueve siempre al robot planificado.
+ */
+class RoutePlanner {
+    private final Robot[] robots;
+    /** Tiendas ordenadas por ubicación */
+    private final Store[] stores;
+    private final int boardSize;
+
+    /** Ubicación simulada de cada robot */
+    private final int[] robotLocation;
+    /** Tenges simulados de cada robot */
+    private final long[] robotTenges;
+    /** Tenges simulados de cada tienda durante el ciclo actual */
+    private final int[] storeTenges;
+    /** Menor orden de colocación entre los robots de cada casilla ocupada */
+    private final Map<Integer, Integer> firstSequenceAt = new HashMap<>();
+
+    /**
+     * Recorrido elegido para un robot durante un ciclo.
+     */
+    private static class Tour {
+        /** Índices de las tiendas visitadas, en orden; -1 si el movimiento termina en una casilla vacía */
+        final int[] stops;
+        /** Ubicación donde termina cada movimiento */
+        final int[] cells;
+        /** Pasos con signo de cada movimiento */
+        final int[] steps;
+        /** Ganancia esperada de cada movimiento */
+        final int[] profits;
+        /** Si la tienda de cada movimiento rechaza al robot y conserva sus tenges */
+        final boolean[] refused;
+        final long total;
+
+        Tour(int[] stops, int[] cells, int[] steps, int[] profits, boolean[] refused, long total) {
+            this.stops = stops;
+            this.cells = cells;
+            this.steps = steps;
+            this.profits = profits;
+            this.refused = refused;
+            this.total = total;
+        }
+    }
+
+    RoutePlanner(List<Robot> robots, List<Store> stores, int boardSize) {
+        this.robots = robots.toArray(new Robot[0]);
+        this.stores = stores.toArray(new Store[0]);
+        Arrays.sort(this.stores, Comparator.comparingInt(Store::getLocation));
+        this.boardSize = boardSize;
+        robotLocation = new int[this.robots.length];
+        robotTenges = new long[this.robots.length];
+        for (int r = 0; r < this.robots.length; r++) {
+            robotLocation[r] = this.robots[r].getLocation();
+            robotTenges[r] = this.robots[r].getTenges();
+        }
+        storeTenges = new int[this.stores.length];
+        for (int s = 0; s < this.stores.length; s++) {
+            storeTenges[s] = this.stores[s].getTenges();
+        }
+    }
+
+    /**
+     * @param movesPerCycle Máximo de movimientos de cada robot por ciclo
+     * @param cycles Número de ciclos; antes de cada ciclo, salvo el primero, se reabastece
+     * @return Filas {ciclo, ubicación del robot, pasos, ubicación donde se detiene, ganancia esperada}
+     *         en el orden en que deben ejecutarse; ubicaciones 1-based y ciclos desde 1
+     */
+    int[][] plan(int movesPerCycle, int cycles) {
+        List<int[]> moves = new ArrayList<>();
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            if (cycle > 0) {
+                for (int s = 0; s < stores.length; s++) {
+                    storeTenges[s] = stores[s].getInitialTenges();
+                }
+            }
+            boolean[] planned = new boolean[robots.length];
+            while (true) {
+                indexOccupiedCells();
+                int bestRobot = -1;
+                Tour best = null;
+                for (int r = 0; r < robots.length; r++) {
+                    if (planned[r] || !isFirstInCell(r)) {
+                        continue;
+                    }
+                    Tour tour = bestTour(r, movesPerCycle);
+                    if (tour != null && (best == null || tour.total > best.total)) {
+                        best = tour;
+                        bestRobot = r;
+                    }
+                }
+                if (best == null) {
+                    break;
+                }
+                planned[bestRobot] = true;
+                for (int k = 0; k < best.stops.length; k++) {
+                    moves.add(new int[]{cycle + 1, robotLocation[bestRobot] + 1, best.steps[k],
+                        best.cells[k] + 1, best.profits[k]});
+                    robotLocation[bestRobot] = best.cells[k];
+                    if (best.stops[k] >= 0 && !best.refused[k]) {
+                        storeTenges[best.stops[k]] = 0;
+                    }
+                }
+                robotTenges[bestRobot] += best.total;
+            }
+        }
+        return moves.toArray(new int[0][]);
+    }
+
+    private void indexOccupiedCells() {
+        firstSequenceAt.clear();
+        for (int r = 0; r < robots.length; r++) {
+            firstSequenceAt.merge(robotLocation[r], robots[r].sequence, Math::min);
+        }
+    }
+
+    private boolean isFirstInCell(int r) {
+        return firstSequenceAt.get(robotLocation[r]) == robots[r].sequence;
+    }
+
+    /**
+     * Tiendas disponibles alrededor de un robot. Las posiciones del arco son
+     * p > 0 para la p-ésima tienda hacia adelante, p < 0 para la -p-ésima hacia
+     * atrás y 0 para la casilla de partida.
+     */
+    private class Arc {
+        /** Tiendas con tenges de la más cercana a la más lejana hacia adelante; la k-ésima hacia atrás es la {@code count - k} */
+        final int[] forward;
+        final int count;
+        final long[] forwardDistance;
+        /** Tienda con tenges en la casilla de partida, o -1 */
+        final int startStore;
+
+        Arc(int location) {
+            int first = lowerBound(location + 1);
+            int[] found = new int[stores.length];
+            int n = 0;
+            int atStart = -1;
+            for (int k = 0; k < stores.length; k++) {
+                int s = (first + k) % stores.length;
+                if (storeTenges[s] <= 0) {
+                    continue;
+                }
+                if (stores[s].getLocation() == location) {
+                    atStart = s;
+                } else {
+                    found[n++] = s;
+                }
+            }
+            forward = found;
+            count = n;
+            startStore = atStart;
+            forwardDistance = new long[n];
+            for (int k = 0; k < n; k++) {
+                forwardDistance[k] = Math.floorMod(stores[found[k]].getLocation() - location, boardSize);
+            }
+        }
+
+        /**
+         * @return Posición relativa al punto de partida (negativa hacia atrás)
+         *         de la posición p del arco
+         */
+        long offset(int p) {
+            if (p < 0) {
+                return -(boardSize - forwardDistance[count + p]);
+            }
+            return p > 0 ? forwardDistance[p - 1] : 0;
+        }
+
+        /**
+         * @return Tienda en la posición p del arco
+         */
+        int store(int p) {
+            if (p < 0) {
+                return forward[count + p];
+            }
+            return p > 0 ? forward[p - 1] : startStore;
+        }
+    }
+
+    /**
+     * Estado del recorrido de un robot durante un ciclo.
+     */
+    private static final class State {
+        /** Tiendas tomadas hacia atrás y hacia adelante */
+        final int back;
+        final int ahead;
+        /** Posición del arco donde está el robot */
+        final int position;
+        /** Posiciones del arco, en orden, cuyas tiendas conservan tenges */
+        final int[] stocked;
+
+        State(int back, int ahead, int position, int[] stocked) {
+            this.back = back;
+            this.ahead = ahead;
+            this.position = position;
+            this.stocked = stocked;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            return back == other.back && ahead == other.ahead && position == other.position
+                && Arrays.equals(stocked, other.stocked);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((back * 31 + ahead) * 31 + position) * 31 + Arrays.hashCode(stocked);
+        }
+    }
+
+    /**
+     * Último movimiento de un camino; los caminos que comparten prefijo
+     * comparten sus movimientos.
+     */
+    private static final class Step {
+        final Step previous;
+        /** Estado al terminar el movimiento, o null si terminó en una casilla vacía */
+        final State state;
+        /** Ganancia acumulada */
+        final long value;
+        final int moves;
+        final int store;
+        final int cell;
+        final int steps;
+        final boolean refused;
+
+        Step(Step previous, State state, long value, int store, int cell, int steps, boolean refused) {
+            this.previous = previous;
+            this.state = state;
+            this.value = value;
+            this.moves = previous == null ? 0 : previous.moves + 1;
+            this.store = store;
+            this.cell = cell;
+            this.steps = steps;
+            this.refused = refused;
+        }
+    }
+
+    /**
+     * Mejor recorrido del robot con las tiendas disponibles, o null si ninguno
+     * deja ganancia. Ante empates se prefiere el de menos movimientos.
+     */
+    private Tour bestTour(int r, int movesPerCycle) {
+        int location = robotLocation[r];
+        Arc arc = new Arc(location);
+        if (movesPerCycle == 0 || (arc.count == 0 && arc.startStore < 0)) {
+            return null;
+        }
+        int[] initial = arc.startStore >= 0 ? new int[]{0} : new int[0];
+        Step start = new Step(null, new State(0, 0, 0, initial), 0, -1, location, 0, false);
+
+        // Mayor ganancia con que se alcanzó cada estado en las capas ya cerradas
+        Map<State, Long> reached = new HashMap<>();
+        reached.put(start.state, 0L);
+        Map<State, Step> current = Map.of(start.state, start);
+        Map<State, Step> next = new HashMap<>();
+        Map<State, Step> later = new HashMap<>();
+        Step best = null;
+        for (int moves = 0; !current.isEmpty() || !next.isEmpty(); moves++) {
+            for (Step step : current.values()) {
+                if (moves > 0 && isBlocked(step.cell, robots[r])) {
+                    continue;
+                }
+                if (moves + 1 <= movesPerCycle) {
+                    move(r, arc, step, 1, next);
+                    if (robots[r].canMoveBackward()) {
+                        move(r, arc, step, -1, next);
+                    }
+                }
+                if (moves == 0 && moves + 2 <= movesPerCycle && arc.startStore >= 0
+                        && robots[r].canMoveBackward()) {
+                    stepOffAndBack(r, arc, step, 1, later);
+                    stepOffAndBack(r, arc, step, -1, later);
+                }
+            }
+            current = new HashMap<>();
+            for (Step step : next.values()) {
+                Long previous = reached.get(step.state);
+                if (previous == null || step.value > previous) {
+                    reached.put(step.state, step.value);
+                    current.put(step.state, step);
+                    if (step.value > (best == null ? 0 : best.value)) {
+                        best = step;
+                    }
+                }
+            }
+            next = later;
+            later = new HashMap<>();
+        }
+        return best == null ? null : rebuild(best);
+    }
+
+    /**
+     * Mueve al robot en la dirección indicada hasta la primera tienda con
+     * tenges: una que conserve tenges dentro del arco, la siguiente fuera de
+     * él o, si ya no quedan tiendas fuera, la primera del arco tras dar la vuelta.
+     */
+    private void move(int r, Arc arc, Step from, int direction, Map<State, Step> layer) {
+        State state = from.state;
+        int back = state.back;
+        int ahead = state.ahead;
+        int target = direction > 0 ? firstAfter(state.stocked, state.position)
+                                   : lastBefore(state.stocked, state.position);
+        long distance;
+        if (target != state.position) {
+            distance = direction * (arc.offset(target) - arc.offset(state.position));
+        } else if (back + ahead < arc.count) {
+            if (direction > 0) {
+                target = ++ahead;
+            } else {
+                target = -++back;
+            }
+            distance = direction * (arc.offset(target) - arc.offset(state.position));
+        } else if (state.stocked.length > 0) {
+            target = direction > 0 ? state.stocked[0] : state.stocked[state.stocked.length - 1];
+            distance = direction * (arc.offset(target) - arc.offset(state.position)) + boardSize;
+        } else {
+            return;
+        }
+        visit(r, arc, from, back, ahead, target, distance, direction, layer);
+    }
+
+    /**
+     * Toma la tienda de la casilla de partida dando un paso a una casilla
+     * vecina sin tenges y volviendo.
+     */
+    private void stepOffAndBack(int r, Arc arc, Step from, int direction, Map<State, Step> layer) {
+        if (boardSize < 2) {
+            return;
+        }
+        int cell = Math.floorMod(robotLocation[r] + direction, boardSize);
+        boolean neighbourStocked = arc.count > 0 && (direction > 0
+            ? arc.forwardDistance[0] == 1 : arc.forwardDistance[arc.count - 1] == boardSize - 1);
+        if (neighbourStocked || isBlocked(cell, robots[r])) {
+            return;
+        }
+        int cost = robots[r].getMovementCost(1);
+        Step off = new Step(from, null, from.value - cost, -1, cell, direction, false);
+        visit(r, arc, off, 0, 0, 0, 1, -direction, layer);
+    }
+
+    /**
+     * Registra la llegada del robot a la tienda en la posición {@code target}
+     * del arco, si mejora lo encontrado para ese estado en la capa.
+     */
+    private void visit(int r, Arc arc, Step from, int back, int ahead, int target, long distance,
+                       int direction, Map<State, Step> layer) {
+        Robot robot = robots[r];
+        int store = arc.store(target);
+        int cost = robot.getMovementCost((int) distance);
+        long tenges = robotTenges[r] + from.value - cost;
+        int arriving = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, tenges));
+        boolean refused = stores[store].refuses(robot, arriving, storeTenges[store]);
+        long value = from.value + stores[store].estimateYield(robot, arriving, storeTenges[store]) - cost;
+        int[] stocked = (from.state != null ? from.state : from.previous.state).stocked;
+        State state = new State(back, ahead, target, refused ? with(stocked, target) : without(stocked, target));
+        Step current = layer.get(state);
+        if (current == null || value > current.value) {
+            layer.put(state, new Step(from, state, value, store, stores[store].getLocation(),
+                (int) (direction * distance), refused));
+        }
+    }
+
+    /**
+     * @return La primera posición de {@code sorted} mayor que {@code position},
+     *         o {@code position} si no hay ninguna
+     */
+    private static int firstAfter(int[] sorted, int position) {
+        for (int p : sorted) {
+            if (p > position) {
+                return p;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * @return La última posición de {@code sorted} menor que {@code position},
+     *         o {@code position} si no hay ninguna
+     */
+    private static int lastBefore(int[] sorted, int position) {
+        for (int k = sorted.length - 1; k >= 0; k--) {
+            if (sorted[k] < position) {
+                return sorted[k];
+            }
+        }
+        return position;
+    }
+
+    private static int[] with(int[] sorted, int position) {
+        int k = Arrays.binarySearch(sorted, position);
+        if (k >= 0) {
+            return sorted;
+        }
+        int insert = -k - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insert);
+        result[insert] = position;
+        System.arraycopy(sorted, insert, result, insert + 1, sorted.length - insert);
+        return result;
+    }
+
+    private static int[] without(int[] sorted, int position) {
+        int k = Arrays.binarySearch(sorted, position);
+        if (k < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, k);
+        System.arraycopy(sorted, k + 1, result, k, sorted.length - k - 1);
+        return result;
+    }
+
+    /**
+     * Reconstruye los movimientos que llevan al último paso elegido.
+     */
+    private Tour rebuild(Step last) {
+        int length = last.moves;
+        int[] stops = new int[length];
+        int[] cells = new int[length];
+        int[] steps = new int[length];
+        int[] profits = new int[length];
+        boolean[] refused = new boolean[length];
+        Step step = last;
+        for (int k = length - 1; k >= 0; k--) {
+            stops[k] = step.store;
+            cells[k] = step.cell;
+            steps[k] = step.steps;
+            profits[k] = (int) (step.value - step.previous.value);
+            refused[k] = step.refused;
+            step = step.previous;
+        }
+        return new Tour(stops, cells, steps, profits, refused, last.value);
+    }
+
+    /**
+     * Una casilla no sirve de parada intermedia si en ella espera otro robot
+     * colocado antes: el siguiente movimiento lo movería a él.
+     */
+    private boolean isBlocked(int cell, Robot robot) {
+        Integer sequence = firstSequenceAt.get(cell);
+        return sequence != null && sequence < robot.sequence;
+    }
+
+    /**
+     * @return Índice de la primera tienda con ubicación mayor o igual a la dada
+     */
+    private int lowerBound(int location) {
+        int low = 0;
+        int high = stores.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stores[mid].getLocation() < location) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return high == stores.length ? 0 : high;
+    }
+}
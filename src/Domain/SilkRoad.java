@@ -1,47 +1,105 @@
 package Domain;
-import Shapes.*;
-import Presentation.*;
+import Presentation.SilkRoadView;
 
 import java.util.*;
-import javax.swing.JOptionPane;
-import javax.swing.JFrame;
-
-class InvalidLocationException extends Exception {
-    public InvalidLocationException(String message) {
-        super(message);
-    }
-}
-
-class OccupiedLocationException extends Exception {
-    public OccupiedLocationException(String message) {
-        super(message);
-    }
-}
+import java.util.random.RandomGenerator;
 
 public class SilkRoad {
     private int size;
-    private int[][] spiral;
+    /** Número total de casillas de la ruta (size²) */
+    private int cells;
+    /** true si el tablero solo guarda las casillas ocupadas */
+    private boolean sparse;
+    /** Conversión entre ubicaciones y coordenadas del tablero */
+    private Spiral layout;
     private ArrayList<Store> stores;
     private ArrayList<Robot> robots;
-    private SilkRoadView view;
     private boolean lastOk = true;
-    private Map<Integer, Store> storeLocations;
+    /** Tienda de cada casilla, indexada por posición en la espiral (null si no hay) */
+    private CellMap<Store> storeCells;
+    /** Índice ordenado de tiendas para saltar a la siguiente tienda con tenges */
+    private StoreIndex storeIndex;
+    /** Mantiene los índices sincronizados cuando una tienda cambia sus tenges */
+    private final Store.Observer storeObserver = store -> storeIndex.update(store);
+    /** Índice de robots por casilla para consultas en tiempo constante */
+    private RobotIndex robotIndex;
+    /** Suma de los tenges de todos los robots, actualizada con cada cambio */
+    private int totalProfit = 0;
+    /** Suma de los tenges iniciales de todas las tiendas */
+    private int maxProfit = 0;
+    /** Robots ordenados por riqueza, para hallar al más rico sin recorrerlos */
+    private final RobotRanking ranking = new RobotRanking();
+    /** Robot que está parpadeando como el más rico, o null */
+    private Robot blinkingRobot;
+    /** Mantiene la ganancia total y el ranking cuando un robot gana o pierde tenges */
+    private final Robot.Observer robotObserver = (robot, delta) -> {
+        totalProfit += delta;
+        ranking.update(robot);
+    };
+    /** Robots ordenados por ubicación, válidos mientras el índice no cambie */
+    private Robot[] robotsByLocation;
+    /** Valor de {@link RobotIndex#modifications()} cuando se ordenaron los robots */
+    private int robotsByLocationVersion;
+    /** Contador de robots colocados, define el orden dentro de una casilla */
+    private int placedRobots = 0;
+    /** Contador de tiendas colocadas, define la preferencia ante empates */
+    private int placedStores = 0;
+    /** Observadores notificados de cada cambio (por ejemplo, la vista gráfica) */
+    private final List<SilkRoadListener> listeners = new ArrayList<>();
+    /** Registro donde se graban las operaciones, o null si no se graba */
+    private SimulationLog log;
+    /**
+     * Fuente de azar de la ruta; cada tienda aleatoria recibe una rama propia.
+     * Su estado se guarda en las instantáneas para repetir exactamente la ruta.
+     */
+    private SplitMixRandom random = SplitMixRandom.from(new SplittableRandom());
 
-    private void init(int size) {
+    /**
+     * A partir de este número de casillas el tablero es disperso: sus
+     * estructuras solo guardan las casillas ocupadas y no tiene vista gráfica.
+     */
+    public static final int SPARSE_BOARD_CELLS = 1 << 22;
+
+    private void init(int size, boolean graphical) {
+        long cellCount = (long) size * size;
+        if (cellCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board too large: " + size + " cells per side");
+        }
         this.size = size;
-        this.spiral = generateSpiral(size);
+        this.cells = (int) cellCount;
+        this.sparse = cells >= SPARSE_BOARD_CELLS;
+        this.layout = new Spiral(size);
         this.stores = new ArrayList<>();
         this.robots = new ArrayList<>();
-        this.storeLocations = new HashMap<>();
-        if (System.getProperty("java.awt.headless") == null) {
-            this.view = new SilkRoadView(this, this.size, this.spiral);
-        } else {
-            this.view = null;
+        this.storeCells = CellMap.create(cells, sparse);
+        this.robotIndex = new RobotIndex(cells, sparse);
+        this.storeIndex = new StoreIndex(cells);
+        if (graphical && !sparse) {
+            addListener(new SilkRoadView(this, this.size, this.layout));
         }
     }
 
+    /**
+     * Crea una ruta de seda. Se muestra gráficamente salvo que la propiedad
+     * {@code java.awt.headless} esté definida.
+     * @param size Número de casillas por lado
+     */
     public SilkRoad(int size) {
-        init(size);
+        this(size, System.getProperty("java.awt.headless") == null);
+    }
+
+    /**
+     * Crea una ruta de seda indicando si debe tener vista gráfica.
+     * Sin vista, la simulación no carga ninguna clase de AWT ni de Swing.
+     * Los tableros de {@link #SPARSE_BOARD_CELLS} casillas o más son dispersos
+     * y nunca tienen vista.
+     * @param size Número de casillas por lado
+     * @param graphical true para crear y suscribir la vista gráfica
+     * @throws IllegalArgumentException Si el tablero tiene más de
+     *         {@link Integer#MAX_VALUE} casillas
+     */
+    public SilkRoad(int size, boolean graphical) {
+        init(size, graphical);
     }
 
     /**
@@ -50,15 +108,26 @@ public class SilkRoad {
      * Tipo 1 = Robot, Tipo 2 = Tienda
      */
     public SilkRoad(int[][] marathonInput) {
+        this(marathonInput, System.getProperty("java.awt.headless") == null);
+    }
+
+    /**
+     * Constructor que acepta entrada de maratón indicando si debe tener vista gráfica.
+     * @param marathonInput Entrada de la maratón
+     * @param graphical true para crear y suscribir la vista gráfica
+     * @throws IllegalArgumentException Si alguna ubicación exige un tablero de
+     *         más de {@link Integer#MAX_VALUE} casillas
+     */
+    public SilkRoad(int[][] marathonInput, boolean graphical) {
         int maxLocation = 0;
         for (int[] itemData : marathonInput) {
             if (itemData.length > 1) {
                 maxLocation = Math.max(maxLocation, itemData[1]);
             }
         }
-        int calculatedSize = (int) Math.ceil(Math.sqrt(maxLocation + 1));
+        int calculatedSize = (int) Math.ceil(Math.sqrt((long) maxLocation + 1));
         
-        init(calculatedSize);
+        init(calculatedSize, graphical);
 
         for (int[] itemData : marathonInput) {
             int type = itemData[0];
@@ -71,18 +140,99 @@ public class SilkRoad {
             }
         }
         
-        if (this.view != null) {
+        if (graphical) {
             makeVisible();
         }
     }
 
+    /**
+     * Reconstruye una ruta a partir de una instantánea de su estado.
+     * @param snapshot Estado guardado con {@link #snapshot()}
+     * @param graphical true para crear y suscribir la vista gráfica
+     */
+    public SilkRoad(BoardSnapshot snapshot, boolean graphical) {
+        init(snapshot.size, graphical);
+        for (int i = 0; i < snapshot.getStoreCount(); i++) {
+            RandomGenerator storeRandom = snapshot.storeRandomGamma[i] != 0
+                ? new SplitMixRandom(snapshot.storeRandomState[i], snapshot.storeRandomGamma[i]) : null;
+            Store s = createStore(BoardSnapshot.STORE_TYPES[snapshot.storeType[i]],
+                snapshot.storeLocation[i], snapshot.storeInitialTenges[i], loc -> true, storeRandom);
+            s.restore(snapshot.storeTenges[i], snapshot.storeCollected[i], snapshot.storeTimesEmptied[i]);
+            s.sequence = snapshot.storeSequence[i];
+            s.observer = storeObserver;
+            storeCells.set(s.getLocation(), s);
+            stores.add(s);
+            maxProfit += s.getInitialTenges();
+        }
+        storeIndex.addAll(stores);
+        for (int i = 0; i < snapshot.getRobotCount(); i++) {
+            Robot r = createRobot(BoardSnapshot.ROBOT_TYPES[snapshot.robotType[i]],
+                snapshot.robotInitialLocation[i]);
+            r.observer = robotObserver;
+            r.restore(snapshot.robotLocation[i], snapshot.robotTenges[i], snapshot.robotHistoryLimit[i],
+                snapshot.history, snapshot.historyStart[i], snapshot.historyStart[i + 1]);
+            r.sequence = snapshot.robotSequence[i];
+            robots.add(r);
+            robotIndex.add(r);
+            ranking.add(r);
+        }
+        placedStores = snapshot.placedStores;
+        placedRobots = snapshot.placedRobots;
+        random = new SplitMixRandom(snapshot.randomState, snapshot.randomGamma);
+        if (graphical) {
+            makeVisible();
+        }
+    }
+
+    /**
+     * Toma una instantánea del estado actual de la ruta.
+     */
+    public BoardSnapshot snapshot() {
+        return BoardSnapshot.of(size, placedStores, placedRobots, random, stores, robots);
+    }
+
+    /**
+     * Empieza a grabar en el registro cada operación que modifique la ruta.
+     * @param log Registro donde se graban las operaciones
+     */
+    public void startRecording(SimulationLog log) {
+        this.log = log;
+        log.attach(this);
+    }
+
+    /**
+     * Deja de grabar operaciones.
+     */
+    public void stopRecording() {
+        if (log != null) {
+            log.detach();
+            log = null;
+        }
+    }
+
+    /**
+     * Suscribe un observador a los cambios de la ruta.
+     * @param listener Observador a notificar
+     */
+    public void addListener(SilkRoadListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Cancela la suscripción de un observador.
+     * @param listener Observador a retirar
+     */
+    public void removeListener(SilkRoadListener listener) {
+        listeners.remove(listener);
+    }
+
     public void placeStore(int location, int tenges, String type) throws InvalidLocationException, OccupiedLocationException {
         if (location < 1) {
             throw new InvalidLocationException("Location must be greater than 0");
         }
         
         int requestedLoc = location - 1;
-        if (requestedLoc >= size * size) {
+        if (requestedLoc >= cells) {
             throw new InvalidLocationException("Location exceeds board size");
         }
         
@@ -90,37 +240,29 @@ public class SilkRoad {
             throw new InvalidLocationException("Tenges must be non-negative");
         }
         
+        long randomState = random.getState();
         Store s;
         try {
-            if ("autonomous".equalsIgnoreCase(type)) {
-                s = new AutonomousStore(requestedLoc, tenges, size * size,
-                    loc -> !storeLocations.containsKey(loc)
-                           && robots.stream().noneMatch(r -> java.util.Objects.equals(r.getLocation(), loc))
-                );
-            } else if ("fighter".equalsIgnoreCase(type)) {
-                s = new FighterStore(requestedLoc, tenges);
-            } else if ("casino".equalsIgnoreCase(type)) {
-                s = new CasinoStore(requestedLoc, tenges);
-            } else {
-                s = new NormalStore(requestedLoc, tenges);
-            }
+            s = createStore(type, requestedLoc, tenges,
+                loc -> storeCells.get(loc) == null && !robotIndex.isOccupied(loc));
             
             int actualLoc = s.getLocation();
-            boolean isOccupied = storeLocations.containsKey(actualLoc)
-                || robots.stream().anyMatch(r -> java.util.Objects.equals(r.getLocation(), actualLoc));
+            boolean isOccupied = storeCells.get(actualLoc) != null
+                || robotIndex.isOccupied(actualLoc);
             
             if (isOccupied) {
                 throw new OccupiedLocationException("Location " + location + " is already occupied");
             }
             
-            storeLocations.put(actualLoc, s);
-            this.stores.add(s);
-            if (view != null) {
-                for(Store a : stores) view.drawStore(s);
-            }
+            s.sequence = placedStores++;
+            addStore(s);
+            for (SilkRoadListener l : listeners) l.storePlaced(s);
             lastOk = true;
+            if (log != null) log.placeStore(actualLoc + 1, tenges, type);
             
         } catch (Exception e) {
+            // Una colocación fallida no se registra, así que tampoco debe consumir azar
+            random = new SplitMixRandom(randomState, random.getGamma());
             lastOk = false;
             throw e;
         }
@@ -134,7 +276,7 @@ public class SilkRoad {
             placeStore(location, tenges, "normal");
         } catch (InvalidLocationException | OccupiedLocationException e) {
             lastOk = false;
-            JOptionPane.showMessageDialog(null, "Error placing store: " + e.getMessage());
+            fireOperationFailed("Error placing store: " + e.getMessage());
         }
     }
 
@@ -149,36 +291,31 @@ public class SilkRoad {
         }
         
         int internalLocation = location - 1;
-        if (internalLocation >= size * size) {
+        if (internalLocation >= cells) {
             throw new InvalidLocationException("Location exceeds board size");
         }
         
-        boolean isOccupied = storeLocations.containsKey(internalLocation) || 
-                            robots.stream().anyMatch(r -> r.getLocation() == internalLocation);
+        boolean isOccupied = storeCells.get(internalLocation) != null || 
+                            robotIndex.isOccupied(internalLocation);
                              
         if (isOccupied) {
             throw new OccupiedLocationException("Location " + location + " is already occupied");
         }
         
         try {
-            Robot r;
-            if ("neverback".equalsIgnoreCase(type)) {
-                r = new NeverBackRobot(internalLocation);
-            } else if ("tender".equalsIgnoreCase(type)) {
-                r = new TenderRobot(internalLocation);
-            } else if ("greedy".equalsIgnoreCase(type)) {
-                r = new GreedyRobot(internalLocation);
-            } else {
-                r = new NormalRobot(internalLocation);
-            }
-            
+            Robot r = createRobot(type, internalLocation);
+            r.sequence = placedRobots++;
+            r.observer = robotObserver;
             robots.add(r);
-            if (view != null) {
-                view.drawRobot(r);
+            robotIndex.add(r);
+            ranking.add(r);
+            if (!listeners.isEmpty()) {
+                for (SilkRoadListener l : listeners) l.robotPlaced(r);
                 updateBlinkingRobot();
             }
-            view.updateProfitBar(profit(), getMaxProfit());
+            fireProfitChanged();
             lastOk = true;
+            if (log != null) log.placeRobot(location, type);
             
         } catch (Exception e) {
             lastOk = false;
@@ -194,28 +331,29 @@ public class SilkRoad {
             placeRobot(location, "normal");
         } catch (InvalidLocationException | OccupiedLocationException e) {
             lastOk = false;
-            JOptionPane.showMessageDialog(null, "Error placing robot: " + e.getMessage());
+            fireOperationFailed("Error placing robot: " + e.getMessage());
         }
     }
     
     public void removeStore(int location) throws InvalidLocationException {
         location -= 1;
-        if (location < 0 || location >= size * size) {
+        if (location < 0 || location >= cells) {
             throw new InvalidLocationException("Invalid location: " + (location + 1));
         }
         
         try {
-            Iterator<Store> it = stores.iterator();
-            while(it.hasNext()) {
-                Store s = it.next();
-                if(s.getLocation() == location) {
-                    if(view != null) view.eraseStore(s);
-                    it.remove();
-                    storeLocations.remove(location);
-                    lastOk = true;
-                    view.updateProfitBar(profit(), getMaxProfit());
-                    return;
-                }
+            Store s = storeCells.get(location);
+            if(s != null) {
+                stores.remove(s);
+                storeCells.set(location, null);
+                storeIndex.remove(s);
+                s.observer = null;
+                maxProfit -= s.getInitialTenges();
+                for (SilkRoadListener l : listeners) l.storeRemoved(s);
+                lastOk = true;
+                if (log != null) log.removeStore(location + 1);
+                fireProfitChanged();
+                return;
             }
             lastOk = false;
             throw new InvalidLocationException("No store found at location " + (location + 1));
@@ -227,23 +365,26 @@ public class SilkRoad {
 
     public void removeRobot(int location) throws InvalidLocationException {
         location -= 1;
-        if (location < 0 || location >= size * size) {
+        if (location < 0 || location >= cells) {
             throw new InvalidLocationException("Invalid location: " + (location + 1));
         }
         
         try {
-            Iterator<Robot> it = robots.iterator();
-            while(it.hasNext()) {
-                Robot r = it.next();
-                if(r.getLocation() == location) {
-                    r.setBlinking(false);
-                    if(view != null) view.eraseRobot(r);
-                    it.remove();
-                    lastOk = true;
-                    if(view != null) updateBlinkingRobot();
-                    view.updateProfitBar(profit(), getMaxProfit());
-                    return;
-                }
+            Robot r = robotIndex.first(location);
+            if(r != null) {
+                r.setBlinking(false);
+                if (r == blinkingRobot) blinkingRobot = null;
+                robotIndex.remove(r);
+                ranking.remove(r);
+                robots.remove(r);
+                r.observer = null;
+                totalProfit -= r.getTenges();
+                for (SilkRoadListener l : listeners) l.robotRemoved(r);
+                lastOk = true;
+                if (log != null) log.removeRobot(location + 1);
+                if(!listeners.isEmpty()) updateBlinkingRobot();
+                fireProfitChanged();
+                return;
             }
             lastOk = false;
             throw new InvalidLocationException("No robot found at location " + (location + 1));
@@ -253,65 +394,67 @@ public class SilkRoad {
         }
     }
     
+    /**
+     * Mueve cada robot hacia la tienda que le da mayor ganancia, en orden de colocación.
+     */
     public void moveRobots() {
+        moveRobots(false);
+    }
+
+    /**
+     * Mueve cada robot hacia la tienda que le da mayor ganancia.
+     *
+     * <p>Con {@code parallel} en true, los planes de todos los robots se calculan
+     * en paralelo sobre el estado inicial del turno y luego se aplican en orden de
+     * colocación; un plan que quedó obsoleto (su tienda fue vaciada por un robot
+     * anterior) se recalcula en ese momento, así que el resultado es el mismo
+     * que en la ejecución secuencial.
+     *
+     * @param parallel true para calcular los planes en paralelo
+     */
+    public void moveRobots(boolean parallel) {
+        // Se graba como un solo evento, no como los movimientos individuales
+        SimulationLog recording = log;
+        log = null;
+        try {
+            planAndMoveRobots(parallel);
+        } finally {
+            log = recording;
+        }
+        if (log != null) log.operation(SimulationLog.MOVE_ROBOTS);
+    }
+
+    private void planAndMoveRobots(boolean parallel) {
         ArrayList<Robot> robotsToMove = new ArrayList<>(this.robots);
-        for (Robot robot : robotsToMove) {
-            Store bestTargetStore = null;
-            int maxProfit = Integer.MIN_VALUE;
-            int stepsToMove = 0;
-            int robotLocation = robot.getLocation();
-            int totalSquares = size * size;
-            
-            for (Store store : this.stores) {
-                if (store.getTenges() > 0) {
-                    int storeLocation = store.getLocation();
-                    int distFwd = (storeLocation - robotLocation + totalSquares) % totalSquares;
-                    int distBwd = (robotLocation - storeLocation + totalSquares) % totalSquares;
-                    
-                    // Considerar si el robot puede retroceder
-                    int shortestDist;
-                    int direction;
-                    if (robot.canMoveBackward()) {
-                        shortestDist = Math.min(distFwd, distBwd);
-                        direction = (distFwd <= distBwd) ? 1 : -1;
-                    } else {
-                        // Solo puede ir hacia adelante
-                        shortestDist = distFwd;
-                        direction = 1;
-                    }
-                    
-                    if (shortestDist == 0) continue;
-                    
-                    // Calcular costo usando el método del robot
-                    int movementCost = robot.getMovementCost(shortestDist);
-                    // Calcular ganancia potencial usando el método del robot
-                    int potentialCollection = robot.collectFromStore(store.getTenges());
-                    int potentialProfit = potentialCollection - movementCost;
-                    
-                    if (potentialProfit > maxProfit) {
-                        maxProfit = potentialProfit;
-                        bestTargetStore = store;
-                        stepsToMove = shortestDist * direction;
-                    }
-                }
+        MovePlanner planner = new MovePlanner(storeIndex, cells);
+        MovePlanner.Plan[] plans = new MovePlanner.Plan[robotsToMove.size()];
+        if (parallel) {
+            java.util.stream.IntStream.range(0, plans.length).parallel()
+                .forEach(i -> plans[i] = planner.plan(robotsToMove.get(i)));
+        }
+        for (int i = 0; i < plans.length; i++) {
+            Robot robot = robotsToMove.get(i);
+            MovePlanner.Plan plan = plans[i];
+            if (plan == null || !plan.isValidFor(robot)) {
+                plan = planner.plan(robot);
             }
-            
-            if (bestTargetStore != null && maxProfit > 0) {
-                moveRobot(robot.getLocation() + 1, stepsToMove);
+            if (plan.target != null) {
+                moveRobot(robot.getLocation() + 1, plan.steps);
             }
         }
-        if (view != null) updateBlinkingRobot();
-        view.updateProfitBar(profit(), getMaxProfit());
+        if (!listeners.isEmpty()) updateBlinkingRobot();
+        fireProfitChanged();
     }
 
     public void moveRobot(int location, int steps) {
         lastOk = true;
         final int targetLocation = location - 1;
+        if (targetLocation < 0 || targetLocation >= cells) {
+            lastOk = false;
+            return;
+        }
 
-        Robot robot = robots.stream()
-                            .filter(r -> r.getLocation() == targetLocation)
-                            .findFirst()
-                            .orElse(null);
+        Robot robot = robotIndex.first(targetLocation);
 
         if (robot == null) {
             lastOk = false;
@@ -325,22 +468,20 @@ public class SilkRoad {
             return;
         }
         
-        int totalSquares = size * size;
+        int totalSquares = cells;
         int currentLoc = robot.getLocation();
         int stepDir = (steps >= 0) ? 1 : -1;
-        int stepsLeft = Math.abs(steps);
-        int distanceTraveled = 0;
-        Store targetStore = null;
+        long stepsLeft = Math.abs((long) steps);
+        int distanceTraveled;
         
-        while (stepsLeft > 0) {
-            currentLoc = (currentLoc + stepDir + totalSquares) % totalSquares;
-            distanceTraveled++;
-            Store storeAtStep = storeLocations.get(currentLoc);
-            if (storeAtStep != null && storeAtStep.getTenges() > 0) {
-                targetStore = storeAtStep;
-                break;
-            }
-            stepsLeft--;
+        // El robot se detiene en la primera tienda con tenges de su camino
+        Store targetStore = storeIndex.nextNonEmpty(currentLoc, stepDir, stepsLeft);
+        if (targetStore != null) {
+            distanceTraveled = storeIndex.distance(currentLoc, targetStore.getLocation(), stepDir);
+            currentLoc = targetStore.getLocation();
+        } else {
+            distanceTraveled = (int) stepsLeft;
+            currentLoc = (int) Math.floorMod(currentLoc + stepDir * stepsLeft, (long) totalSquares);
         }
         
         // Usar el costo de movimiento específico del robot
@@ -355,44 +496,85 @@ public class SilkRoad {
             profitThisMove += collectedAmount;
         }
         
-        robot.setLocation(currentLoc);
+        robotIndex.move(robot, currentLoc);
         robot.recordProfit(profitThisMove);
+        if (log != null) log.moveRobot(location, steps);
         
-        if (view != null) {
-            view.updateRobot(robot);
-            view.updateProfitBar(profit(), getMaxProfit());
+        if (!listeners.isEmpty()) {
+            for (SilkRoadListener l : listeners) l.robotMoved(robot);
+            fireProfitChanged();
             updateBlinkingRobot();
         }
     }
 
+    /**
+     * Hace parpadear al robot más rico, si tiene ganancias, y detiene al
+     * anterior. Solo cambian los dos robots involucrados.
+     */
     private void updateBlinkingRobot() {
-        if (robots.isEmpty()) {
-            return;
-        }
-        Robot richestRobot = robots.stream()
-                                   .max(Comparator.comparingInt(Robot::getTenges))
-                                   .orElse(null);
+        Robot richestRobot = ranking.richest();
         if (richestRobot != null && richestRobot.getTenges() <= 0) {
             richestRobot = null;
         }
-        for (Robot r : robots) {
-            r.setBlinking(r == richestRobot);
+        if (richestRobot == blinkingRobot) {
+            return;
         }
+        if (blinkingRobot != null) blinkingRobot.setBlinking(false);
+        if (richestRobot != null) richestRobot.setBlinking(true);
+        blinkingRobot = richestRobot;
+    }
+
+    /**
+     * Planifica los recorridos de todos los robots para varios ciclos, sin
+     * modificar la ruta. Cada fila es un movimiento para
+     * {@link #moveRobot(int, int)}; al pasar de un ciclo al siguiente se supone
+     * que se llama a {@link #resupplyStores()}.
+     * @param movesPerCycle Máximo de movimientos de cada robot por ciclo
+     * @param cycles Número de ciclos de reabastecimiento a planificar
+     * @return Filas {ciclo (desde 1), ubicación del robot, pasos, ubicación
+     *         donde se detiene, ganancia esperada} en el orden en que deben
+     *         ejecutarse
+     */
+    public int[][] planRoutes(int movesPerCycle, int cycles) {
+        if (movesPerCycle < 0 || cycles < 0) {
+            throw new IllegalArgumentException("Moves and cycles must be non-negative");
+        }
+        return new RoutePlanner(robots, stores, cells).plan(movesPerCycle, cycles);
+    }
+
+    /**
+     * Tabla de los robots más ricos.
+     * @param k Número máximo de robots a incluir
+     * @return Ubicación (1-based) y tenges de cada robot, del más rico al menos rico;
+     *         los empates se resuelven por orden de colocación
+     */
+    public int[][] richestRobots(int k) {
+        List<Robot> top = ranking.top(k);
+        int[][] result = new int[top.size()][];
+        for (int i = 0; i < result.length; i++) {
+            Robot r = top.get(i);
+            result[i] = new int[]{r.getLocation() + 1, r.getTenges()};
+        }
+        return result;
     }
     
     public void resupplyStores() {
         for(Store s : stores) { 
             s.resupply(); 
         }
-        view.updateProfitBar(profit(), getMaxProfit());
+        fireProfitChanged();
+        if (log != null) log.operation(SimulationLog.RESUPPLY_STORES);
     }
 
     public void returnRobots() {
         for(Robot r : robots) { 
+            robotIndex.remove(r);
             r.returnToInitial(); 
-            if(view != null) view.updateRobot(r); 
+            robotIndex.add(r);
+            for (SilkRoadListener l : listeners) l.robotMoved(r);
         }
-        if(view != null) updateBlinkingRobot();
+        if(!listeners.isEmpty()) updateBlinkingRobot();
+        if (log != null) log.operation(SimulationLog.RETURN_ROBOTS);
     }
 
     public void reboot() {
@@ -400,85 +582,121 @@ public class SilkRoad {
             s.reboot(); 
         }
         for(Robot r : robots) { 
+            robotIndex.remove(r);
             r.reboot(); 
-            if(view != null) view.updateRobot(r); 
+            robotIndex.add(r);
+            for (SilkRoadListener l : listeners) l.robotMoved(r);
         }
-        if(view != null) {
+        if(!listeners.isEmpty()) {
             updateBlinkingRobot();
-            view.updateProfitBar(profit(), getMaxProfit());
+            fireProfitChanged();
         }
+        if (log != null) log.operation(SimulationLog.REBOOT);
     }
 
+    /**
+     * @return Suma de los tenges de todos los robots, mantenida en cada cambio
+     */
     public int profit() {
-        return robots.stream().mapToInt(Robot::getTenges).sum();
+        return totalProfit;
     }
 
+    /**
+     * @return Ubicación (1-based) y tenges de cada tienda, en orden de ubicación
+     */
     public int[][] stores() {
-        return stores.stream()
-            .sorted(Comparator.comparingInt(Store::getLocation))
-            .map(s -> new int[]{s.getLocation() + 1, s.getTenges()})
-            .toArray(int[][]::new);
+        int[][] result = new int[storeIndex.size()][];
+        int i = 0;
+        for (Store s : storeIndex.inOrder()) {
+            result[i++] = new int[]{s.getLocation() + 1, s.getTenges()};
+        }
+        return result;
     }
     
+    /**
+     * @return Ubicación (1-based) y veces vaciada de cada tienda, en orden de ubicación
+     */
     public int[][] emptiedStores() {
-        return stores.stream()
-            .sorted(Comparator.comparingInt(Store::getLocation))
-            .map(s -> new int[]{s.getLocation() + 1, s.getTimesEmptied()})
-            .toArray(int[][]::new);
+        int[][] result = new int[storeIndex.size()][];
+        int i = 0;
+        for (Store s : storeIndex.inOrder()) {
+            result[i++] = new int[]{s.getLocation() + 1, s.getTimesEmptied()};
+        }
+        return result;
     }
     
     public int[][] profitPerMove() {
-        int maxMoves = robots.stream()
-            .mapToInt(r -> r.getProfitHistory().size())
-            .max().orElse(0);
-        
-        return robots.stream()
-            .sorted(Comparator.comparingInt(Robot::getLocation))
-            .map(r -> {
-                int[] row = new int[1 + maxMoves];
-                row[0] = r.getLocation() + 1;
-                List<Integer> history = r.getProfitHistory();
-                for (int i = 0; i < history.size(); i++) {
-                    row[i + 1] = history.get(i);
-                }
-                return row;
-            })
-            .toArray(int[][]::new);
+        Robot[] sorted = robotsByLocation();
+        int maxMoves = 0;
+        for (Robot r : sorted) {
+            maxMoves = Math.max(maxMoves, r.getProfitHistory().size());
+        }
+        int[][] result = new int[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            int[] row = new int[1 + maxMoves];
+            row[0] = sorted[i].getLocation() + 1;
+            sorted[i].getProfitHistory().copyTo(row, 1);
+            result[i] = row;
+        }
+        return result;
     }
 
+    /**
+     * @return Ubicación (1-based) y tenges de cada robot, en orden de ubicación
+     */
     public int[][] robots() {
-        return robots.stream()
-            .sorted(Comparator.comparingInt(Robot::getLocation))
-            .map(r -> new int[]{r.getLocation() + 1, r.getTenges()})
-            .toArray(int[][]::new);
+        Robot[] sorted = robotsByLocation();
+        int[][] result = new int[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = new int[]{sorted[i].getLocation() + 1, sorted[i].getTenges()};
+        }
+        return result;
+    }
+
+    /**
+     * Robots ordenados por ubicación; los de una misma casilla quedan en orden
+     * de colocación. El orden solo se recalcula si algún robot cambió de casilla
+     * desde la última consulta.
+     */
+    private Robot[] robotsByLocation() {
+        if (robotsByLocation == null || robotsByLocationVersion != robotIndex.modifications()) {
+            Robot[] sorted = robots.toArray(new Robot[0]);
+            Arrays.sort(sorted, Comparator.comparingInt(Robot::getLocation));
+            robotsByLocation = sorted;
+            robotsByLocationVersion = robotIndex.modifications();
+        }
+        return robotsByLocation;
     }
 
     public void makeVisible() {
-        if(view != null) {
-            view.drawBoard();
-            view.showProfitBar();
-            for(Store s : stores) view.drawStore(s);
-            for(Robot r : robots) view.drawRobot(r);
+        if(!listeners.isEmpty()) {
+            for (SilkRoadListener l : listeners) l.boardShown();
             updateBlinkingRobot();
         }
     }
 
     public void makeInvisible() {
-         if (view != null) {
-            for(Robot r : robots) r.setBlinking(false);
-            for(Store s : stores) view.eraseStore(s);
-            for(Robot r : robots) view.eraseRobot(r);
+         if (!listeners.isEmpty()) {
+            if (blinkingRobot != null) blinkingRobot.setBlinking(false);
+            blinkingRobot = null;
+            for (SilkRoadListener l : listeners) l.boardHidden();
         }
     }
 
     public void finish() {
         makeInvisible();
-        if (view != null && view.getFrame() != null) {
-            view.getFrame().dispose();
-        }
+        for (SilkRoadListener l : listeners) l.boardClosed();
+        for (Store s : stores) s.observer = null;
+        for (Robot r : robots) r.observer = null;
+        ranking.clear();
+        blinkingRobot = null;
+        totalProfit = 0;
+        maxProfit = 0;
         robots.clear();
         stores.clear();
-        storeLocations.clear();
+        storeCells.clear();
+        storeIndex.clear();
+        robotIndex.clear();
     }
 
     public boolean ok() { 
@@ -493,33 +711,63 @@ public class SilkRoad {
         return lastOk;
     }
 
-    private int[][] generateSpiral(int n) {
-        int[][] spiral = new int[n][n];
-        int top = 0, bottom = n - 1, left = 0, right = n - 1;
-        int num = 0;
-        while(top <= bottom && left <= right){
-            for(int j = left; j <= right; j++) spiral[top][j] = num++;
-            top++;
-            for(int i = top; i <= bottom; i++) spiral[i][right] = num++;
-            right--;
-            if(top <= bottom){
-                for(int j = right; j >= left; j--) spiral[bottom][j] = num++;
-                bottom--;
-            }
-            if(left <= right){
-                for(int i = bottom; i >= top; i--) spiral[i][left] = num++;
-                left++;
-            }
+    /**
+     * Crea una tienda del tipo indicado; los tipos desconocidos son tiendas normales.
+     */
+    private Store createStore(String type, int location, int tenges, java.util.function.Predicate<Integer> isAvailable) {
+        return createStore(type, location, tenges, isAvailable, null);
+    }
+
+    /**
+     * @param storeRandom Generador propio de la tienda, o null para darle una rama del de la ruta
+     */
+    private Store createStore(String type, int location, int tenges, java.util.function.Predicate<Integer> isAvailable,
+                              RandomGenerator storeRandom) {
+        if ("autonomous".equalsIgnoreCase(type)) {
+            return new AutonomousStore(location, tenges, cells, isAvailable,
+                storeRandom != null ? storeRandom : random.split());
+        } else if ("fighter".equalsIgnoreCase(type)) {
+            return new FighterStore(location, tenges);
+        } else if ("casino".equalsIgnoreCase(type)) {
+            return new CasinoStore(location, tenges, storeRandom != null ? storeRandom : random.split());
+        }
+        return new NormalStore(location, tenges);
+    }
+
+    /**
+     * Crea un robot del tipo indicado; los tipos desconocidos son robots normales.
+     */
+    private Robot createRobot(String type, int location) {
+        if ("neverback".equalsIgnoreCase(type)) {
+            return new NeverBackRobot(location);
+        } else if ("tender".equalsIgnoreCase(type)) {
+            return new TenderRobot(location);
+        } else if ("greedy".equalsIgnoreCase(type)) {
+            return new GreedyRobot(location);
         }
-        return spiral;
+        return new NormalRobot(location);
     }
 
-    private SilkRoadView getView() {
-        return view;
+    /**
+     * Registra la tienda en la lista, las casillas y el índice de la ruta.
+     */
+    private void addStore(Store s) {
+        storeCells.set(s.getLocation(), s);
+        storeIndex.add(s);
+        s.observer = storeObserver;
+        this.stores.add(s);
+        maxProfit += s.getInitialTenges();
     }
 
-    private int getMaxProfit() {
-        return stores.stream().mapToInt(Store::getInitialTenges).sum();
+    private void fireProfitChanged() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (SilkRoadListener l : listeners) l.profitChanged(totalProfit, maxProfit);
+    }
+
+    private void fireOperationFailed(String message) {
+        for (SilkRoadListener l : listeners) l.operationFailed(message);
     }
 
     public ArrayList<Robot> getRobots() {
@@ -531,7 +779,50 @@ public class SilkRoad {
     }
     
     public int getBoardSize() {
-        return this.size * this.size;
+        return cells;
+    }
+
+    /**
+     * Reemplaza la fuente de azar de la ruta. Las tiendas casino y autónomas
+     * que se coloquen después reciben cada una su propia rama del generador,
+     * así que dos rutas con la misma semilla y las mismas operaciones obtienen
+     * exactamente los mismos resultados, y rutas distintas no comparten estado.
+     *
+     * <p>Del generador dado solo se toma la semilla: la ruta usa un generador
+     * SplitMix64 propio cuyo estado se guarda en instantáneas y registros.
+     * @param random Generador divisible, por ejemplo {@code new SplittableRandom(semilla)}
+     */
+    public void setRandom(RandomGenerator.SplittableGenerator random) {
+        useRandom(SplitMixRandom.from(Objects.requireNonNull(random)));
+    }
+
+    /**
+     * Usa un generador SplitMix64 con la semilla dada.
+     */
+    public void setRandomSeed(long seed) {
+        useRandom(new SplitMixRandom(seed));
+    }
+
+    /**
+     * Reemplaza el generador de la ruta y lo graba en el registro, si lo hay.
+     */
+    void useRandom(SplitMixRandom random) {
+        this.random = random;
+        if (log != null) log.setRandom(random.getState(), random.getGamma());
+    }
+
+    /**
+     * @return true si el tablero solo guarda las casillas ocupadas
+     */
+    public boolean isSparse() {
+        return this.sparse;
+    }
+
+    /**
+     * @return Recorrido en espiral del tablero, para convertir ubicaciones en coordenadas
+     */
+    public Spiral getSpiral() {
+        return this.layout;
     }
     
     public void wait(int milliseconds) {
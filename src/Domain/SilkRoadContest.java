@@ -1,10 +1,16 @@
 package Domain;
 
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -12,6 +18,30 @@ import java.util.stream.Collectors;
  * Esta clase orquesta la simulación día a día usando la clase SilkRoad.
  */
 public class SilkRoadContest {
+    /** Algoritmo usado para encontrar la asignación óptima de cada día */
+    private final AssignmentSolver solver;
+    /** Si es true, solve() repara la asignación del día anterior en lugar de reconstruirla */
+    private final boolean incremental;
+
+    /**
+     * Crea un concurso que resuelve cada día con el método húngaro de forma
+     * incremental: la asignación del día anterior se repara con el nuevo evento.
+     */
+    public SilkRoadContest() {
+        this.solver = new HungarianAssignmentSolver();
+        this.incremental = true;
+    }
+
+    /**
+     * Crea un concurso con un algoritmo de asignación específico, por ejemplo
+     * {@link BacktrackingAssignmentSolver} para verificar resultados.
+     * Cada día se reconstruye el tablero y se resuelve desde cero.
+     * @param solver Algoritmo de asignación a usar
+     */
+    public SilkRoadContest(AssignmentSolver solver) {
+        this.solver = solver;
+        this.incremental = false;
+    }
 
     // --- Clases internas de ayuda para la solución ---
     private static class Move {
@@ -95,52 +125,157 @@ public class SilkRoadContest {
      * Resuelve el problema de la maratón y devuelve un arreglo con el profit máximo de cada día.
      */
     public int[] solve(int[][] days) {
+        if (incremental) {
+            return solveIncremental(days);
+        }
         int[] dailyProfits = new int[days.length];
         ArrayList<int[]> dailyInputs = new ArrayList<>();
 
         for (int i = 0; i < days.length; i++) {
             dailyInputs.add(days[i]);
-            SilkRoad road = new SilkRoad(dailyInputs.toArray(new int[0][0]));
+            SilkRoad road = new SilkRoad(dailyInputs.toArray(new int[0][0]), false);
             Result solution = findOptimalAssignment(road);
             dailyProfits[i] = solution.maxProfit;
         }
         return dailyProfits;
     }
 
-    // --- Lógica de Solución Óptima (Backtracking) ---
+    /**
+     * Resuelve la maratón manteniendo un único tablero y la asignación óptima
+     * del día anterior, que solo se repara con el robot o la tienda nuevos.
+     * Da el mismo resultado que reconstruir cada día, en tiempo O(R × S) por día.
+     * El profit de cada día se reduce a int por el tipo de retorno; para
+     * entradas cuyo profit no cabe en un int use
+     * {@link #solve(MarathonReader, LongConsumer)}.
+     */
+    public int[] solveIncremental(int[][] days) {
+        int[] dailyProfits = new int[days.length];
+        IncrementalAssignment assignment = new IncrementalAssignment();
+        for (int i = 0; i < days.length; i++) {
+            dailyProfits[i] = (int) assignment.addEvent(days[i]);
+        }
+        return dailyProfits;
+    }
+
+    /**
+     * Resuelve la maratón a medida que se leen los días, sin guardar los
+     * resultados. El concurso incremental tampoco guarda la entrada; con un
+     * algoritmo de asignación específico se conservan los eventos para
+     * reconstruir el tablero cada día, como en {@link #solve(int[][])}.
+     * @param input Entrada de la maratón
+     * @param dailyProfits Recibe el profit máximo de cada día, en orden
+     */
+    public void solve(MarathonReader input, LongConsumer dailyProfits) throws IOException {
+        ToLongFunction<int[]> days = dailySolver();
+        for (int[] event = input.next(); event != null; event = input.next()) {
+            dailyProfits.accept(days.applyAsLong(event));
+        }
+    }
+
+    /**
+     * Resuelve una entrada en formato de texto de la ICPC y escribe el profit
+     * máximo de cada día en una línea de la salida, a medida que se calcula.
+     * Los canales siguen siendo del llamador: no se cierran, y un canal de
+     * entrada no bloqueante queda sin registrar en ningún selector al terminar.
+     * @param input Canal con la entrada de la maratón
+     * @param output Canal donde se escriben los resultados
+     */
+    public void solve(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        MarathonReader reader = new MarathonReader(input);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            ToLongFunction<int[]> days = dailySolver();
+            for (int[] event = reader.next(); event != null; event = reader.next()) {
+                if (buffer.remaining() < 21) {
+                    flush(buffer, output);
+                }
+                writeLine(buffer, days.applyAsLong(event));
+            }
+            flush(buffer, output);
+        } finally {
+            reader.releaseSelector();
+        }
+    }
+
+    /**
+     * Calcula el profit de cada día a partir de su evento según la configuración
+     * del concurso: reparando la asignación del día anterior o reconstruyendo el
+     * tablero con todos los eventos y resolviéndolo con el algoritmo elegido.
+     */
+    private ToLongFunction<int[]> dailySolver() {
+        if (incremental) {
+            return new IncrementalAssignment()::addEvent;
+        }
+        List<int[]> events = new ArrayList<>();
+        return event -> {
+            events.add(event.clone());
+            return findOptimalAssignment(new SilkRoad(events.toArray(new int[0][]), false)).maxProfit;
+        };
+    }
+
+    /**
+     * Escribe un número seguido de un salto de línea sin crear cadenas.
+     */
+    private static void writeLine(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+        buffer.put((byte) '\n');
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel output) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // --- Lógica de Solución Óptima ---
     private Result findOptimalAssignment(SilkRoad road) {
         List<Robot> robots = road.getRobots();
         List<Store> stores = road.getStores().stream().filter(s -> s.getTenges() > 0).collect(Collectors.toList());
         Result finalResult = new Result();
         if (robots.isEmpty() || stores.isEmpty()) { return finalResult; }
-        solveAssignmentRecursive(0, robots, stores, new ArrayList<>(), 0, finalResult, road.getBoardSize());
-        return finalResult;
-    }
-    
-    private void solveAssignmentRecursive(int robotIndex, List<Robot> robots, List<Store> availableStores, List<Move> currentMoves, int currentProfit, Result result, int boardSize) {
-        if (robotIndex == robots.size()) {
-            if (currentProfit > result.maxProfit) {
-                result.maxProfit = currentProfit;
-                result.bestMoves = new ArrayList<>(currentMoves);
+        int boardSize = road.getBoardSize();
+        int[][] profits = new int[robots.size()][stores.size()];
+        for (int i = 0; i < robots.size(); i++) {
+            for (int j = 0; j < stores.size(); j++) {
+                profits[i][j] = assignmentProfit(robots.get(i), stores.get(j), boardSize);
             }
-            return;
         }
-        Robot currentRobot = robots.get(robotIndex);
-        solveAssignmentRecursive(robotIndex + 1, robots, availableStores, currentMoves, currentProfit, result, boardSize);
-        for (int i = 0; i < availableStores.size(); i++) {
-            Store store = availableStores.get(i);
-            int robotLoc = currentRobot.getLocation();
-            int storeLoc = store.getLocation();
-            int distance = Math.min((storeLoc - robotLoc + boardSize) % boardSize, (robotLoc - storeLoc + boardSize) % boardSize);
-            int profit = store.getTenges() - distance;
-            if (profit > 0) {
-                List<Store> remainingStores = new ArrayList<>(availableStores);
-                remainingStores.remove(i);
-                currentMoves.add(new Move(currentRobot, store, profit));
-                solveAssignmentRecursive(robotIndex + 1, robots, remainingStores, currentMoves, currentProfit + profit, result, boardSize);
-                currentMoves.remove(currentMoves.size() - 1);
+        int[] assignment = solver.solve(profits);
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j >= 0 && profits[i][j] > 0) {
+                finalResult.maxProfit += profits[i][j];
+                finalResult.bestMoves.add(new Move(robots.get(i), stores.get(j), profits[i][j]));
             }
         }
+        return finalResult;
+    }
+
+    /**
+     * Ganancia de llevar un robot a una tienda: los tenges de la tienda menos
+     * la distancia circular más corta entre ambos.
+     */
+    static int assignmentProfit(Robot robot, Store store, int boardSize) {
+        int robotLoc = robot.getLocation();
+        int storeLoc = store.getLocation();
+        long forward = Math.floorMod((long) storeLoc - robotLoc, boardSize);
+        long distance = Math.min(forward, boardSize - forward);
+        return (int) (store.getTenges() - distance);
     }
     
     /**
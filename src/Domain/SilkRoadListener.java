@@ -0,0 +1,66 @@
+package Domain;
+
+/**
+ * Observador de los cambios de una {@link SilkRoad}.
+ *
+ * <p>Permite que la capa de presentación (o cualquier otro consumidor, como un
+ * registro de eventos) reaccione a la simulación sin que el dominio dependa de
+ * ella. Una ruta sin observadores funciona de forma completamente independiente
+ * de la interfaz gráfica.
+ *
+ * <p>Todos los métodos tienen una implementación vacía por defecto, de modo que
+ * cada observador solo sobrescribe los eventos que le interesan.
+ */
+public interface SilkRoadListener {
+    /**
+     * Se agregó una tienda a la ruta.
+     * @param store Tienda agregada
+     */
+    default void storePlaced(Store store) { }
+
+    /**
+     * Se eliminó una tienda de la ruta.
+     * @param store Tienda eliminada
+     */
+    default void storeRemoved(Store store) { }
+
+    /**
+     * Se agregó un robot a la ruta.
+     * @param robot Robot agregado
+     */
+    default void robotPlaced(Robot robot) { }
+
+    /**
+     * Se eliminó un robot de la ruta.
+     * @param robot Robot eliminado
+     */
+    default void robotRemoved(Robot robot) { }
+
+    /**
+     * Un robot cambió de posición.
+     * @param robot Robot que se movió
+     */
+    default void robotMoved(Robot robot) { }
+
+    /**
+     * Cambiaron las ganancias de la ruta.
+     * @param current Ganancias actuales
+     * @param maximum Ganancias máximas posibles
+     */
+    default void profitChanged(int current, int maximum) { }
+
+    /**
+     * Una operación solicitada no pudo completarse.
+     * @param message Descripción del error
+     */
+    default void operationFailed(String message) { }
+
+    /** Se solicitó mostrar la ruta. */
+    default void boardShown() { }
+
+    /** Se solicitó ocultar la ruta. */
+    default void boardHidden() { }
+
+    /** La simulación terminó y la ruta fue vaciada. */
+    default void boardClosed() { }
+}
@@ -0,0 +1,302 @@
+package Domain;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registro binario, de solo agregado, de las operaciones que modifican una ruta.
+ *
+ * <p>Cada operación exitosa (colocar, retirar, mover, reabastecer, regresar,
+ * reiniciar o cambiar la semilla) se guarda como un código de un byte seguido
+ * de sus argumentos.
+ * Cada {@code snapshotInterval} eventos se toma además una instantánea del
+ * tablero, de modo que {@link #replay(int)} puede reconstruir la ruta en
+ * cualquier punto partiendo de la instantánea anterior más cercana y
+ * repitiendo solo los eventos siguientes.
+ *
+ * <p>La repetición es exacta también con azar: las instantáneas guardan el
+ * estado del generador de la ruta y del de cada casino, y un cambio de semilla
+ * queda registrado como evento, así que los casinos vuelven a sortear los
+ * mismos resultados. Las tiendas autónomas se registran en la ubicación que
+ * eligieron.
+ */
+public class SimulationLog {
+    static final byte PLACE_STORE = 1;
+    static final byte REMOVE_STORE = 2;
+    static final byte PLACE_ROBOT = 3;
+    static final byte REMOVE_ROBOT = 4;
+    static final byte MOVE_ROBOT = 5;
+    static final byte MOVE_ROBOTS = 6;
+    static final byte RESUPPLY_STORES = 7;
+    static final byte RETURN_ROBOTS = 8;
+    static final byte REBOOT = 9;
+    static final byte SET_RANDOM = 10;
+
+    /**
+     * Instantánea del tablero justo antes de un evento.
+     */
+    private static class Checkpoint {
+        final int event;
+        final int offset;
+        final BoardSnapshot snapshot;
+
+        Checkpoint(int event, int offset, BoardSnapshot snapshot) {
+            this.event = event;
+            this.offset = offset;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final int snapshotInterval;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private byte[] data = new byte[256];
+    private int length = 0;
+    private int eventCount = 0;
+    /** Ruta que se está grabando, o null */
+    private SilkRoad road;
+
+    /**
+     * @param snapshotInterval Número de eventos entre instantáneas (al menos 1)
+     */
+    public SimulationLog(int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Reconstruye un registro guardado con {@link #writeTo(OutputStream)}.
+     * @param in Eventos guardados
+     * @param start Estado de la ruta antes del primer evento
+     * @param snapshotInterval Eventos entre instantáneas; se toman al repetir
+     */
+    public static SimulationLog readFrom(InputStream in, BoardSnapshot start, int snapshotInterval) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        int events = input.readInt();
+        int bytes = input.readInt();
+        byte[] stored = new byte[bytes];
+        input.readFully(stored);
+
+        SimulationLog log = new SimulationLog(snapshotInterval);
+        SilkRoad road = new SilkRoad(start, false);
+        road.startRecording(log);
+        ByteBuffer buffer = ByteBuffer.wrap(stored);
+        for (int i = 0; i < events; i++) {
+            apply(road, buffer);
+        }
+        road.stopRecording();
+        return log;
+    }
+
+    /**
+     * Guarda los eventos registrados: su cantidad, su tamaño en bytes y los eventos.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(eventCount);
+        output.writeInt(length);
+        output.write(data, 0, length);
+        output.flush();
+    }
+
+    /**
+     * @return Número de eventos registrados
+     */
+    public int size() {
+        return eventCount;
+    }
+
+    /**
+     * @return Estado de la ruta antes del primer evento registrado
+     */
+    public BoardSnapshot initialSnapshot() {
+        return checkpoints.isEmpty() ? null : checkpoints.get(0).snapshot;
+    }
+
+    /**
+     * Reconstruye la ruta tal como estaba después de los primeros
+     * {@code eventIndex} eventos, sin vista gráfica.
+     * @param eventIndex Número de eventos a aplicar, entre 0 y {@link #size()}
+     * @return Una ruta nueva, independiente de la grabada
+     */
+    public SilkRoad replay(int eventIndex) {
+        if (checkpoints.isEmpty() || eventIndex < 0 || eventIndex > eventCount) {
+            throw new IllegalArgumentException("Event index out of range: " + eventIndex);
+        }
+        Checkpoint from = checkpoints.get(0);
+        for (Checkpoint checkpoint : checkpoints) {
+            if (checkpoint.event <= eventIndex) {
+                from = checkpoint;
+            }
+        }
+        SilkRoad replayed = new SilkRoad(from.snapshot, false);
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        buffer.position(from.offset);
+        for (int i = from.event; i < eventIndex; i++) {
+            apply(replayed, buffer);
+        }
+        return replayed;
+    }
+
+    /**
+     * Empieza a grabar una ruta: su estado actual se guarda como instantánea
+     * antes del siguiente evento.
+     */
+    void attach(SilkRoad road) {
+        this.road = road;
+        checkpoints.add(new Checkpoint(eventCount, length, road.snapshot()));
+    }
+
+    void detach() {
+        this.road = null;
+    }
+
+    void placeStore(int location, int tenges, String type) {
+        begin(PLACE_STORE);
+        writeInt(location);
+        writeInt(tenges);
+        writeByte(BoardSnapshot.typeCode(BoardSnapshot.STORE_TYPES, type));
+        end();
+    }
+
+    void removeStore(int location) {
+        begin(REMOVE_STORE);
+        writeInt(location);
+        end();
+    }
+
+    void placeRobot(int location, String type) {
+        begin(PLACE_ROBOT);
+        writeInt(location);
+        writeByte(BoardSnapshot.typeCode(BoardSnapshot.ROBOT_TYPES, type));
+        end();
+    }
+
+    void removeRobot(int location) {
+        begin(REMOVE_ROBOT);
+        writeInt(location);
+        end();
+    }
+
+    void moveRobot(int location, int steps) {
+        begin(MOVE_ROBOT);
+        writeInt(location);
+        writeInt(steps);
+        end();
+    }
+
+    void setRandom(long state, long gamma) {
+        begin(SET_RANDOM);
+        writeLong(state);
+        writeLong(gamma);
+        end();
+    }
+
+    /**
+     * Registra una operación sin argumentos sobre toda la ruta.
+     */
+    void operation(byte code) {
+        begin(code);
+        end();
+    }
+
+    private void begin(byte code) {
+        writeByte(code);
+    }
+
+    /**
+     * Cierra el evento y toma una instantánea si corresponde.
+     */
+    private void end() {
+        eventCount++;
+        if (road != null && eventCount % snapshotInterval == 0) {
+            checkpoints.add(new Checkpoint(eventCount, length, road.snapshot()));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        data[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        data[length++] = (byte) (value >>> 24);
+        data[length++] = (byte) (value >>> 16);
+        data[length++] = (byte) (value >>> 8);
+        data[length++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    /**
+     * Aplica a la ruta el evento que empieza en la posición actual del buffer.
+     */
+    private static void apply(SilkRoad road, ByteBuffer buffer) {
+        byte code = buffer.get();
+        try {
+            switch (code) {
+                case PLACE_STORE: {
+                    int location = buffer.getInt();
+                    int tenges = buffer.getInt();
+                    road.placeStore(location, tenges, BoardSnapshot.STORE_TYPES[buffer.get()]);
+                    break;
+                }
+                case REMOVE_STORE:
+                    road.removeStore(buffer.getInt());
+                    break;
+                case PLACE_ROBOT: {
+                    int location = buffer.getInt();
+                    road.placeRobot(location, BoardSnapshot.ROBOT_TYPES[buffer.get()]);
+                    break;
+                }
+                case REMOVE_ROBOT:
+                    road.removeRobot(buffer.getInt());
+                    break;
+                case MOVE_ROBOT: {
+                    int location = buffer.getInt();
+                    road.moveRobot(location, buffer.getInt());
+                    break;
+                }
+                case MOVE_ROBOTS:
+                    road.moveRobots();
+                    break;
+                case RESUPPLY_STORES:
+                    road.resupplyStores();
+                    break;
+                case RETURN_ROBOTS:
+                    road.returnRobots();
+                    break;
+                case REBOOT:
+                    road.reboot();
+                    break;
+                case SET_RANDOM: {
+                    long state = buffer.getLong();
+                    road.useRandom(new SplitMixRandom(state, buffer.getLong()));
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown event code: " + code);
+            }
+        } catch (InvalidLocationException | OccupiedLocationException e) {
+            throw new IllegalStateException("Recorded event cannot be replayed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package Domain;
+
+/**
+ * Recorrido en espiral del tablero: la ubicación 0 está en la esquina superior
+ * izquierda y la ruta avanza en sentido horario hacia el centro.
+ *
+ * <p>Las coordenadas se calculan a partir del anillo de la ubicación (su
+ * distancia al borde) y de su desplazamiento dentro de ese anillo, en tiempo
+ * constante y sin recorrer ninguna matriz. Ambas direcciones de la conversión
+ * funcionan con tableros de miles de millones de casillas; la matriz completa
+ * solo se construye si alguien la pide.
+ */
+public class Spiral {
+    private final int size;
+    /** Matriz con la ubicación de cada casilla, creada en el primer uso */
+    private int[][] matrix;
+
+    /**
+     * @param size Número de casillas por lado
+     */
+    public Spiral(int size) {
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Convierte una ubicación de la ruta en coordenadas de la matriz.
+     * @param location Ubicación (0-based), entre 0 y size² - 1
+     * @return Arreglo con las coordenadas [fila, columna]
+     */
+    public int[] coordsOf(int location) {
+        long n = size;
+        int ring = ringOf(location);
+        long side = n - 2L * ring;
+        long offset = location - cellsBefore(ring);
+        long row;
+        long column;
+        if (offset < side) {
+            row = ring;
+            column = ring + offset;
+        } else if (offset < 2 * side - 1) {
+            row = ring + offset - side + 1;
+            column = ring + side - 1;
+        } else if (offset < 3 * side - 2) {
+            row = ring + side - 1;
+            column = ring + side - 2 - (offset - 2 * side + 1);
+        } else {
+            row = ring + side - 2 - (offset - 3 * side + 2);
+            column = ring;
+        }
+        return new int[]{(int) row, (int) column};
+    }
+
+    /**
+     * Convierte coordenadas de la matriz en la ubicación de la ruta.
+     * @param row Fila, entre 0 y size - 1
+     * @param column Columna, entre 0 y size - 1
+     * @return Ubicación (0-based) de la casilla
+     */
+    public int locationAt(int row, int column) {
+        int ring = Math.min(Math.min(row, column), Math.min(size - 1 - row, size - 1 - column));
+        long last = size - 1 - ring;
+        long side = size - 2L * ring;
+        long offset;
+        if (row == ring) {
+            offset = column - ring;
+        } else if (column == last) {
+            offset = side - 1 + row - ring;
+        } else if (row == last) {
+            offset = 2 * (side - 1) + last - column;
+        } else {
+            offset = 3 * (side - 1) + last - row;
+        }
+        return (int) (cellsBefore(ring) + offset);
+    }
+
+    /**
+     * Devuelve la matriz del recorrido, con la ubicación de cada casilla.
+     * Se construye la primera vez que se pide y ocupa size² enteros.
+     * @return Matriz [fila][columna] con las ubicaciones
+     */
+    public synchronized int[][] toMatrix() {
+        if (matrix == null) {
+            matrix = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    matrix[i][j] = locationAt(i, j);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return Anillo (0 en el borde) al que pertenece la ubicación
+     */
+    private int ringOf(int location) {
+        long n = size;
+        int ring = (int) ((n - Math.sqrt((double) n * n - location)) / 2);
+        // Corrige el redondeo de la raíz cuadrada
+        while (ring > 0 && cellsBefore(ring) > location) {
+            ring--;
+        }
+        while (2L * (ring + 1) < n && cellsBefore(ring + 1) <= location) {
+            ring++;
+        }
+        return ring;
+    }
+
+    /**
+     * @return Número de casillas en los anillos exteriores al anillo dado
+     */
+    private long cellsBefore(int ring) {
+        return 4L * ring * (size - ring);
+    }
+}
@@ -0,0 +1,81 @@
+package Domain;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador SplitMix64, el mismo algoritmo de {@link java.util.SplittableRandom},
+ * con su estado a la vista.
+ *
+ * <p>Todo el estado son dos enteros largos: el valor actual y el incremento
+ * (gamma). Así una instantánea o un registro de la ruta puede guardarlos y
+ * reconstruir un generador que continúa exactamente la misma secuencia.
+ */
+class SplitMixRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+    private final long gamma;
+
+    /**
+     * @param seed Semilla inicial
+     */
+    SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Continúa una secuencia guardada con {@link #getState()} y {@link #getGamma()}.
+     * @param gamma Incremento; debe ser impar
+     */
+    SplitMixRandom(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("Gamma must be odd");
+        }
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Crea un generador cuya semilla e incremento se toman del generador dado.
+     */
+    static SplitMixRandom from(RandomGenerator source) {
+        return new SplitMixRandom(source.nextLong(), mixGamma(source.nextLong()));
+    }
+
+    long getState() {
+        return state;
+    }
+
+    long getGamma() {
+        return gamma;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += gamma);
+    }
+
+    /**
+     * @return Un generador nuevo e independiente de este, que lo avanza dos pasos
+     */
+    SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(state += gamma));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Incremento impar con suficientes transiciones de bits para que la secuencia sea buena.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -1,5 +1,6 @@
 package Domain;
 import Presentation.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Representa un punto de comercio en la Ruta de la Seda.
@@ -32,6 +33,18 @@ public abstract class Store {
     protected int collected = 0;
     /** Número de veces que la tienda ha sido vaciada */
     protected int timesEmptied = 0;
+    /** Orden de colocación en la ruta, usado para desempatar entre tiendas */
+    int sequence;
+    /** Ruta que contiene la tienda, notificada cuando cambian sus tenges */
+    Observer observer;
+
+    /**
+     * Observador interno que permite a la ruta mantener sus índices
+     * sincronizados con el estado de cada tienda.
+     */
+    interface Observer {
+        void storeChanged(Store store);
+    }
 
     /**
      * Inicializa una nueva tienda con una ubicación y cantidad de tenges específica.
@@ -67,6 +80,46 @@ public abstract class Store {
      */
     public abstract int empty(Robot robot);
 
+    /**
+     * Estima, sin modificar la tienda, cuánto cambiarían los tenges de un robot
+     * al vaciarla con los tenges actuales. Las tiendas con azar devuelven el
+     * valor esperado.
+     * 
+     * @param robot El robot que llegaría a la tienda
+     * @param robotTenges Tenges que tendría el robot al llegar, ya pagado el viaje
+     * @return Cantidad esperada que entregaría {@link #empty(Robot)}
+     */
+    public int estimateYield(Robot robot, int robotTenges) {
+        return estimateYield(robot, robotTenges, tenges);
+    }
+
+    /**
+     * Igual que {@link #estimateYield(Robot, int)}, pero suponiendo que la tienda
+     * tiene la cantidad de tenges indicada; sirve para planificar después de
+     * un reabastecimiento.
+     * 
+     * @param robot El robot que llegaría a la tienda
+     * @param robotTenges Tenges que tendría el robot al llegar, ya pagado el viaje
+     * @param storeTenges Tenges que tendría la tienda
+     * @return Cantidad esperada que entregaría {@link #empty(Robot)}
+     */
+    public int estimateYield(Robot robot, int robotTenges, int storeTenges) {
+        return storeTenges > 0 ? robot.collectFromStore(storeTenges) : 0;
+    }
+
+    /**
+     * Indica si la tienda rechazaría al robot y conservaría sus tenges, de modo
+     * que seguiría deteniendo a los robots que pasen por su casilla.
+     * 
+     * @param robot El robot que llegaría a la tienda
+     * @param robotTenges Tenges que tendría el robot al llegar, ya pagado el viaje
+     * @param storeTenges Tenges que tendría la tienda
+     * @return true si la visita no vaciaría la tienda
+     */
+    public boolean refuses(Robot robot, int robotTenges, int storeTenges) {
+        return false;
+    }
+
     /**
      * Reabastece la tienda a su cantidad inicial de tenges.
      * Útil para simular ciclos comerciales o reiniciar rondas
@@ -74,7 +127,7 @@ public abstract class Store {
      */
     public void resupply() {
         tenges = initialTenges;
-        updateView();
+        stateChanged();
     }
 
     /**
@@ -86,7 +139,7 @@ public abstract class Store {
         tenges = initialTenges;
         collected = 0;
         timesEmptied = 0;
-        updateView();
+        stateChanged();
     }
 
     /**
@@ -130,6 +183,7 @@ public abstract class Store {
      */
     public void setTenges(int v) { 
         tenges = v; 
+        stateChanged();
     }
     
     /**
@@ -176,9 +230,37 @@ public abstract class Store {
         return tenges > 0 ? color : "blue";
     }
     
+    /**
+     * Restablece el estado guardado en una instantánea del tablero.
+     */
+    void restore(int tenges, int collected, int timesEmptied) {
+        this.tenges = tenges;
+        this.collected = collected;
+        this.timesEmptied = timesEmptied;
+    }
+
+    /**
+     * @return Generador propio de la tienda, para guardarlo en una instantánea,
+     *         o null si la tienda no usa azar después de colocarse
+     */
+    RandomGenerator getRandom() {
+        return null;
+    }
+
+    /**
+     * Notifica un cambio de estado de la tienda a la ruta que la contiene
+     * y actualiza su representación visual.
+     * Las subclases deben llamarlo cada vez que modifican sus tenges.
+     */
+    protected void stateChanged() {
+        if (observer != null) {
+            observer.storeChanged(this);
+        }
+        updateView();
+    }
+
     /**
      * Actualiza la representación visual de la tienda.
-     * Se llama automáticamente cuando hay cambios en el estado.
      */
     protected void updateView() {
         if (view != null) {
@@ -0,0 +1,151 @@
+package Domain;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Índice ordenado de las tiendas de la ruta que responde en tiempo logarítmico
+ * cuál es la primera tienda con tenges en una dirección.
+ *
+ * <p>Las tiendas se guardan en un árbol ordenado por posición y las que tienen
+ * tenges, además, en un segundo árbol. Agregar o quitar una tienda, vaciarla o
+ * reabastecerla actualiza ambos árboles en O(log S), así que intercalar
+ * colocaciones con movimientos no obliga a reconstruir nada.
+ */
+class StoreIndex {
+    private final int boardSize;
+    /** Todas las tiendas de la ruta por ubicación */
+    private final TreeMap<Integer, Store> stores = new TreeMap<>();
+    /** Tiendas con tenges por ubicación */
+    private final TreeMap<Integer, Store> stocked = new TreeMap<>();
+
+    /**
+     * @param boardSize Número total de casillas de la ruta circular
+     */
+    StoreIndex(int boardSize) {
+        this.boardSize = boardSize;
+    }
+
+    void add(Store store) {
+        stores.put(store.getLocation(), store);
+        if (store.getTenges() > 0) {
+            stocked.put(store.getLocation(), store);
+        }
+    }
+
+    void addAll(List<Store> added) {
+        for (Store store : added) {
+            add(store);
+        }
+    }
+
+    void remove(Store store) {
+        stores.remove(store.getLocation(), store);
+        stocked.remove(store.getLocation(), store);
+    }
+
+    /**
+     * Sincroniza el índice cuando una tienda se vacía o se reabastece.
+     */
+    void update(Store store) {
+        int location = store.getLocation();
+        if (stores.get(location) != store) {
+            return;
+        }
+        if (store.getTenges() > 0) {
+            stocked.put(location, store);
+        } else {
+            stocked.remove(location);
+        }
+    }
+
+    void clear() {
+        stores.clear();
+        stocked.clear();
+    }
+
+    /**
+     * Busca la primera tienda con tenges que encontraría un robot al avanzar
+     * desde {@code from} en la dirección indicada, sin contar la casilla de partida.
+     *
+     * @param from Posición de partida (0-based)
+     * @param direction 1 hacia adelante, -1 hacia atrás
+     * @param maxSteps Número máximo de pasos
+     * @return La tienda encontrada o null si no hay ninguna a esa distancia
+     */
+    Store nextNonEmpty(int from, int direction, long maxSteps) {
+        Store store = direction >= 0 ? nextNonEmpty(from) : previousNonEmpty(from);
+        if (store == null) {
+            return null;
+        }
+        return distance(from, store.getLocation(), direction) <= maxSteps ? store : null;
+    }
+
+    /**
+     * @return Número de tiendas con tenges
+     */
+    int nonEmptyCount() {
+        return stocked.size();
+    }
+
+    /**
+     * @return Mayor cantidad de tenges entre las tiendas del índice
+     */
+    int maxTenges() {
+        int max = 0;
+        for (Store store : stocked.values()) {
+            max = Math.max(max, store.getTenges());
+        }
+        return max;
+    }
+
+    /**
+     * @return La primera tienda con tenges posterior a {@code location} en
+     *         sentido circular, o null si no hay ninguna
+     */
+    Store nextNonEmpty(int location) {
+        Map.Entry<Integer, Store> entry = stocked.higherEntry(location);
+        if (entry == null) {
+            entry = stocked.firstEntry();
+        }
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * @return La última tienda con tenges anterior a {@code location} en
+     *         sentido circular, o null si no hay ninguna
+     */
+    Store previousNonEmpty(int location) {
+        Map.Entry<Integer, Store> entry = stocked.lowerEntry(location);
+        if (entry == null) {
+            entry = stocked.lastEntry();
+        }
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * @return Número de tiendas del índice
+     */
+    int size() {
+        return stores.size();
+    }
+
+    /**
+     * @return Las tiendas del índice en orden de ubicación
+     */
+    Collection<Store> inOrder() {
+        return stores.values();
+    }
+
+    /**
+     * Pasos necesarios para llegar de {@code from} a {@code to} en la dirección
+     * indicada; volver a la misma casilla requiere una vuelta completa.
+     */
+    int distance(int from, int to, int direction) {
+        long d = direction >= 0 ? (long) to - from : (long) from - to;
+        d = Math.floorMod(d, boardSize);
+        return d == 0 ? boardSize : (int) d;
+    }
+}
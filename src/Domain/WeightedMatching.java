@@ -0,0 +1,322 @@
+package Domain;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Emparejamiento bipartito de peso máximo (no necesariamente perfecto)
+ * calculado con el método húngaro primal-dual.
+ *
+ * <p>Las filas representan robots y las columnas tiendas. Se mantienen
+ * potenciales duales {@code u} (filas) y {@code v} (columnas) que cumplen:
+ * <ul>
+ *   <li>{@code u[i] + v[j] >= peso(i, j)} para toda pareja</li>
+ *   <li>Las parejas emparejadas son ajustadas: {@code u[i] + v[j] == peso(i, j)}</li>
+ *   <li>Las filas y columnas libres tienen potencial cero</li>
+ * </ul>
+ * Con estas condiciones el emparejamiento actual es óptimo, por lo que cada
+ * fila o columna nueva se incorpora con un único camino aumentante en tiempo
+ * O(filas × columnas), sin recalcular el emparejamiento desde cero.
+ *
+ * <p>Las parejas de peso cero nunca necesitan estar emparejadas, así que la
+ * búsqueda solo recorre las aristas que entrega {@link Edges}. Cuando cada fila
+ * tiene pocas columnas con peso positivo, el costo de cada camino aumentante
+ * depende de esas aristas y no del tamaño total del tablero.
+ */
+class WeightedMatching {
+    /**
+     * Grafo bipartito con las parejas que pueden tener peso positivo.
+     * Puede entregar parejas de más (su peso se considera cero) o con índices aún
+     * no agregados (se ignoran), pero nunca de menos.
+     */
+    interface Edges {
+        int weight(int row, int col);
+
+        void forEachColumn(int row, IntConsumer action);
+
+        void forEachRow(int col, IntConsumer action);
+    }
+
+    private final Edges edges;
+    private int rows;
+    private int cols;
+    private long[] u = new long[0];
+    private long[] v = new long[0];
+    private int[] matchRow = new int[0];
+    private int[] matchCol = new int[0];
+    /** Suma de los pesos de las parejas emparejadas */
+    private long total = 0;
+    /** Estado del árbol alternante, reutilizado entre caminos aumentantes */
+    private final Search search = new Search();
+
+    /**
+     * Crea un emparejamiento sobre el grafo completo.
+     * @param weight Peso de cada pareja (fila, columna); los negativos se tratan como cero
+     * @param cols Número inicial de columnas
+     */
+    WeightedMatching(IntBinaryOperator weight, int cols) {
+        this.edges = new Edges() {
+            @Override
+            public int weight(int row, int col) {
+                return weight.applyAsInt(row, col);
+            }
+
+            @Override
+            public void forEachColumn(int row, IntConsumer action) {
+                for (int j = 0; j < WeightedMatching.this.cols; j++) action.accept(j);
+            }
+
+            @Override
+            public void forEachRow(int col, IntConsumer action) {
+                for (int i = 0; i < rows; i++) action.accept(i);
+            }
+        };
+        for (int j = 0; j < cols; j++) {
+            addColumn();
+        }
+    }
+
+    /**
+     * Crea un emparejamiento vacío sobre un grafo disperso.
+     * @param edges Parejas con peso posiblemente positivo
+     */
+    WeightedMatching(Edges edges) {
+        this.edges = edges;
+    }
+
+    /**
+     * Agrega una nueva fila y restablece la optimalidad del emparejamiento.
+     * @return Índice de la fila agregada
+     */
+    int addRow() {
+        int r = rows++;
+        if (r == u.length) {
+            int capacity = Math.max(4, r * 2);
+            u = Arrays.copyOf(u, capacity);
+            matchRow = Arrays.copyOf(matchRow, capacity);
+        }
+        matchRow[r] = -1;
+        u[r] = 0;
+        edges.forEachColumn(r, j -> {
+            if (j < cols) u[r] = Math.max(u[r], w(r, j) - v[j]);
+        });
+        if (u[r] > 0) {
+            augment(r, true);
+        }
+        return r;
+    }
+
+    /**
+     * Agrega una nueva columna y restablece la optimalidad del emparejamiento.
+     * Es el caso simétrico de {@link #addRow()}.
+     * @return Índice de la columna agregada
+     */
+    int addColumn() {
+        int c = cols++;
+        if (c == v.length) {
+            int capacity = Math.max(4, c * 2);
+            v = Arrays.copyOf(v, capacity);
+            matchCol = Arrays.copyOf(matchCol, capacity);
+        }
+        matchCol[c] = -1;
+        v[c] = 0;
+        edges.forEachRow(c, i -> {
+            if (i < rows) v[c] = Math.max(v[c], w(i, c) - u[i]);
+        });
+        if (v[c] > 0) {
+            augment(c, false);
+        }
+        return c;
+    }
+
+    /**
+     * @return Columna emparejada con la fila o -1 si está libre
+     */
+    int columnOf(int row) {
+        return matchRow[row];
+    }
+
+    int rowCount() {
+        return rows;
+    }
+
+    int columnCount() {
+        return cols;
+    }
+
+    /**
+     * @return Suma de los pesos de las parejas emparejadas
+     */
+    long totalWeight() {
+        return total;
+    }
+
+    private long w(int row, int col) {
+        return Math.max(0, edges.weight(row, col));
+    }
+
+    /**
+     * Hace crecer un árbol alternante desde {@code root} ajustando los potenciales
+     * hasta que aparece un vértice libre alcanzable del otro lado o un vértice del
+     * árbol llega a potencial cero y puede quedar libre.
+     *
+     * <p>Con {@code fromRow} en falso la raíz es una columna y se recorre el grafo
+     * con los papeles de filas y columnas intercambiados.
+     */
+    private void augment(int root, boolean fromRow) {
+        long[] rootSide = fromRow ? u : v;
+        long[] otherSide = fromRow ? v : u;
+        int[] rootMatch = fromRow ? matchRow : matchCol;
+        int[] otherMatch = fromRow ? matchCol : matchRow;
+        int rootCount = fromRow ? rows : cols;
+        int otherCount = fromRow ? cols : rows;
+
+        search.reset(Math.max(otherCount, rootCount));
+        search.tree[search.treeSize++] = root;
+        search.relax(root, rootSide, otherSide, fromRow);
+
+        while (true) {
+            long delta = Long.MAX_VALUE;
+            int deltaOther = -1;
+            int deltaTree = -1;
+            for (int k = 0; k < search.touchedCount; k++) {
+                int b = search.touched[k];
+                if (!search.otherInTree[b] && search.slack[b] < delta) {
+                    delta = search.slack[b];
+                    deltaOther = b;
+                }
+            }
+            for (int k = 0; k < search.treeSize; k++) {
+                int a = search.tree[k];
+                if (rootSide[a] < delta) {
+                    delta = rootSide[a];
+                    deltaTree = a;
+                    deltaOther = -1;
+                }
+            }
+
+            for (int k = 0; k < search.treeSize; k++) {
+                rootSide[search.tree[k]] -= delta;
+            }
+            for (int k = 0; k < search.touchedCount; k++) {
+                int b = search.touched[k];
+                if (search.otherInTree[b]) {
+                    otherSide[b] += delta;
+                } else {
+                    search.slack[b] -= delta;
+                }
+            }
+
+            if (deltaTree >= 0) {
+                // El vértice llega a potencial cero: puede quedar libre sin perder optimalidad
+                if (deltaTree != root) {
+                    int b = rootMatch[deltaTree];
+                    rootMatch[deltaTree] = -1;
+                    total -= edge(deltaTree, b, fromRow);
+                    flipPath(b, root, rootMatch, otherMatch, fromRow);
+                }
+                return;
+            }
+
+            int b = deltaOther;
+            search.prev[b] = search.slackFrom[b];
+            if (otherMatch[b] < 0) {
+                flipPath(b, root, rootMatch, otherMatch, fromRow);
+                return;
+            }
+            search.otherInTree[b] = true;
+            int a = otherMatch[b];
+            search.tree[search.treeSize++] = a;
+            search.relax(a, rootSide, otherSide, fromRow);
+        }
+    }
+
+    /**
+     * Estado de un árbol alternante. Solo se recorren los vértices del lado
+     * opuesto alcanzados por alguna arista ({@code touched}), y al empezar otra
+     * búsqueda solo se limpian esos, así que el costo no depende del tamaño total.
+     */
+    private class Search {
+        long[] slack = new long[0];
+        int[] slackFrom = new int[0];
+        int[] prev = new int[0];
+        boolean[] otherInTree = new boolean[0];
+        int[] touched = new int[0];
+        int touchedCount = 0;
+        int[] tree = new int[1];
+        int treeSize = 0;
+
+        /**
+         * Prepara una búsqueda vacía con lugar para {@code count} vértices por lado.
+         */
+        void reset(int count) {
+            for (int k = 0; k < touchedCount; k++) {
+                slack[touched[k]] = Long.MAX_VALUE;
+                otherInTree[touched[k]] = false;
+            }
+            touchedCount = 0;
+            treeSize = 0;
+            if (count > slack.length) {
+                int capacity = Math.max(count, slack.length * 2);
+                int old = slack.length;
+                slack = Arrays.copyOf(slack, capacity);
+                Arrays.fill(slack, old, capacity, Long.MAX_VALUE);
+                slackFrom = Arrays.copyOf(slackFrom, capacity);
+                prev = Arrays.copyOf(prev, capacity);
+                otherInTree = Arrays.copyOf(otherInTree, capacity);
+                touched = Arrays.copyOf(touched, capacity);
+                tree = Arrays.copyOf(tree, capacity + 1);
+            }
+        }
+
+        /**
+         * Actualiza la holgura de los vecinos de {@code a}, recién agregado al árbol.
+         */
+        void relax(int a, long[] rootSide, long[] otherSide, boolean fromRow) {
+            IntConsumer visit = c -> {
+                if (c >= (fromRow ? cols : rows) || otherInTree[c]) {
+                    return;
+                }
+                long s = rootSide[a] + otherSide[c] - edge(a, c, fromRow);
+                if (s < slack[c]) {
+                    if (slack[c] == Long.MAX_VALUE) {
+                        touched[touchedCount++] = c;
+                    }
+                    slack[c] = s;
+                    slackFrom[c] = a;
+                }
+            };
+            if (fromRow) {
+                edges.forEachColumn(a, visit);
+            } else {
+                edges.forEachRow(a, visit);
+            }
+        }
+    }
+
+    private long edge(int a, int b, boolean fromRow) {
+        return fromRow ? w(a, b) : w(b, a);
+    }
+
+    /**
+     * Invierte el camino alternante que termina en {@code end} (lado opuesto
+     * a la raíz) y comienza en {@code root}, actualizando el peso total.
+     */
+    private void flipPath(int end, int root, int[] rootMatch, int[] otherMatch, boolean fromRow) {
+        while (true) {
+            int a = search.prev[end];
+            int next = rootMatch[a];
+            if (next >= 0) {
+                total -= edge(a, next, fromRow);
+            }
+            total += edge(a, end, fromRow);
+            rootMatch[a] = end;
+            otherMatch[end] = a;
+            if (a == root) {
+                return;
+            }
+            end = next;
+        }
+    }
+}
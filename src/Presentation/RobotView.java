@@ -8,7 +8,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.util.List;
 import java.util.*;
-import javax.swing.Timer;
 
 /**
  * Componente visual que maneja la representación gráfica de los robots en el tablero.
@@ -30,15 +29,13 @@ public class RobotView {
     private SilkRoadView roadView;
     /** Forma geométrica que representa visualmente al robot */
     private Circle circle;
-    /** Temporizador para el efecto de parpadeo */
-    private Timer blinkingTimer; 
 
     /**
      * Crea una nueva vista para un robot específico.
      * 
-     * <p>Inicializa la representación visual del robot y configura
-     * el temporizador para el efecto de parpadeo que se usa para
-     * destacar robots especiales (por ejemplo, el más rico).
+     * <p>Inicializa la representación visual del robot. El parpadeo que
+     * destaca a robots especiales (por ejemplo, el más rico) lo marca el
+     * reloj de cuadros del canvas.
      * 
      * @param robot Robot del dominio a representar
      * @param roadView Vista principal del tablero
@@ -47,13 +44,6 @@ public class RobotView {
         this.robot = robot;
         this.roadView = roadView;
         this.circle = new Circle();
-        this.blinkingTimer = new Timer(500, e -> {
-            if (circle.isVisible()) {
-                circle.makeInvisible();
-            } else {
-                circle.makeVisible();
-            }
-        });
     }
 
     /**
@@ -105,7 +95,7 @@ public class RobotView {
      */
     public void startBlinking() {
         circle.makeVisible();
-        blinkingTimer.start();
+        circle.startBlinking();
     }
 
     /**
@@ -113,7 +103,14 @@ public class RobotView {
      * normal del robot.
      */
     public void stopBlinking() {
-        blinkingTimer.stop();
+        circle.stopBlinking();
         circle.makeVisible();
     }
+
+    /**
+     * @return true si el círculo del robot está parpadeando en el canvas
+     */
+    public boolean isBlinking() {
+        return circle.isBlinking();
+    }
 }
\ No newline at end of file
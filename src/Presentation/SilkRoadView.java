@@ -21,14 +21,17 @@ import java.util.*;
  *   <li>La barra de progreso que muestra las ganancias totales</li>
  *   <li>La coordinación entre el modelo de dominio y sus representaciones visuales</li>
  * </ul>
+ *
+ * <p>Se suscribe a la ruta como {@link SilkRoadListener}, de modo que el dominio
+ * no depende de la interfaz gráfica.
  */
-public class SilkRoadView {
+public class SilkRoadView implements SilkRoadListener {
     /** Referencia al modelo de dominio principal */
     private SilkRoad road;
     /** Tamaño del tablero (número de celdas por lado) */
     private int size;
-    /** Matriz que define la secuencia en espiral */
-    private int[][] spiral;
+    /** Recorrido en espiral que ubica cada posición en el tablero */
+    private Spiral spiral;
     /** Tamaño de cada celda en píxeles */
     private int cellSize = 40;
     /** Margen entre celdas en píxeles */
@@ -51,9 +54,9 @@ public class SilkRoadView {
      * 
      * @param road Modelo de dominio del juego
      * @param size Tamaño del tablero
-     * @param spiral Matriz que define el patrón en espiral
+     * @param spiral Recorrido en espiral del tablero
      */
-    public SilkRoadView(SilkRoad road, int size, int[][] spiral) {
+    public SilkRoadView(SilkRoad road, int size, Spiral spiral) {
         this.road = road;
         this.size = size;
         this.spiral = spiral;
@@ -102,8 +105,19 @@ public class SilkRoadView {
      * Dibuja el tablero completo con todas sus celdas.
      * Crea una cuadrícula visual donde cada celda tiene un borde negro
      * y un relleno blanco, formando el espacio de juego.
+     * Todas las celdas se pintan en un solo repintado del canvas.
      */
     public void drawBoard() {
+        Canvas canvas = Canvas.getCanvas();
+        canvas.beginUpdate();
+        try {
+            drawCells();
+        } finally {
+            canvas.commitUpdate();
+        }
+    }
+
+    private void drawCells() {
         for(int i=0; i<size; i++) {
             for(int j=0; j<size; j++) {
                 int x = margin + j * (cellSize + margin);
@@ -199,21 +213,101 @@ public class SilkRoadView {
         profitBarCurrent.makeVisible();
     }
 
+    // --- Eventos de la ruta ---
+
+    @Override
+    public void storePlaced(Store store) {
+        drawStore(store);
+    }
+
+    @Override
+    public void storeRemoved(Store store) {
+        eraseStore(store);
+    }
+
+    @Override
+    public void robotPlaced(Robot robot) {
+        drawRobot(robot);
+    }
+
+    @Override
+    public void robotRemoved(Robot robot) {
+        eraseRobot(robot);
+    }
+
+    @Override
+    public void robotMoved(Robot robot) {
+        updateRobot(robot);
+    }
+
+    @Override
+    public void profitChanged(int current, int maximum) {
+        updateProfitBar(current, maximum);
+    }
+
+    /**
+     * Informa al usuario del error con un cuadro de diálogo.
+     * @param message Descripción del error
+     */
+    @Override
+    public void operationFailed(String message) {
+        JOptionPane.showMessageDialog(null, message);
+    }
+
+    /**
+     * Dibuja el tablero, la barra de progreso y todos los elementos de la ruta.
+     */
+    @Override
+    public void boardShown() {
+        Canvas canvas = Canvas.getCanvas();
+        canvas.beginUpdate();
+        try {
+            drawBoard();
+            showProfitBar();
+            for (Store s : road.getStores()) drawStore(s);
+            for (Robot r : road.getRobots()) drawRobot(r);
+        } finally {
+            canvas.commitUpdate();
+        }
+    }
+
+    /**
+     * Oculta todas las tiendas y robots de la ruta.
+     */
+    @Override
+    public void boardHidden() {
+        Canvas canvas = Canvas.getCanvas();
+        canvas.beginUpdate();
+        try {
+            for (Store s : road.getStores()) eraseStore(s);
+            for (Robot r : road.getRobots()) eraseRobot(r);
+        } finally {
+            canvas.commitUpdate();
+        }
+    }
+
+    /**
+     * Cierra la ventana principal del juego.
+     */
+    @Override
+    public void boardClosed() {
+        if (getFrame() != null) {
+            getFrame().dispose();
+        }
+    }
+
     /**
      * Convierte una posición lógica del juego en coordenadas de matriz.
      * 
      * @param location Posición lógica (0-based)
-     * @return Array con las coordenadas [fila, columna]
+     * @return Array con las coordenadas [fila, columna], o [0, 0] si la
+     *         posición está fuera del tablero
      */
     public int[] coordsForLocation(int location) {
-        for(int i = 0; i < size; i++) {
-            for(int j = 0; j < size; j++) {
-                if(spiral[i][j] == location) {
-                    return new int[]{i, j};
-                }
-            }
+        if (location < 0 || location >= size * size) {
+            return new int[]{0, 0};
         }
-        return new int[]{0, 0};
+        return spiral.coordsOf(location);
     }
 
     /**
@@ -232,13 +326,13 @@ public class SilkRoadView {
         return margin;
     }
 
-    /**
-     * Obtiene el frame principal del juego.
-     * @return Frame de la ventana principal
-     */
-    public JFrame getFrame() {
-        // Canvas exposes getFrame(); previous call used a non-existent
-        // getWindowFrame() which caused a NoSuchMethodError at runtime.
-        return Canvas.getCanvas().getFrame();
-    }
-}
\ No newline at end of file
+    /**
+     * Obtiene el frame principal del juego.
+     * @return Frame de la ventana principal
+     */
+    public JFrame getFrame() {
+        // Canvas exposes getFrame(); previous call used a non-existent
+        // getWindowFrame() which caused a NoSuchMethodError at runtime.
+        return Canvas.getCanvas().getFrame();
+    }
+}
\ No newline at end of file
@@ -5,7 +5,18 @@ import java.awt.*;
 import java.util.List;
 import java.util.*;
 
+/**
+ * Window that paints the shapes. Shape changes only record the damaged area;
+ * a single Swing timer repaints it once per frame and also drives blinking,
+ * so every drawing happens on the event dispatch thread. The timer only runs
+ * while something is pending or blinking.
+ */
 public class Canvas {
+    /** Time between frames, in milliseconds (about 60 frames per second) */
+    public static final int FRAME_MILLIS = 16;
+    /** Time a blinking shape stays visible or hidden, in milliseconds */
+    public static final int BLINK_MILLIS = 500;
+
     private static Canvas canvasSingleton;
 
     /**
@@ -43,8 +54,17 @@ public class Canvas {
     private Graphics2D graphic;
     private Color backgroundColour;
     private Image canvasImage;
-    private List<Object> objects;
-    private HashMap<Object, ShapeDescription> shapes;
+    /** Shapes in painting order; drawing an object again moves it to the top */
+    private LinkedHashMap<Object, ShapeDescription> shapes;
+    /** Area that changed since the last repaint, or null if nothing changed */
+    private java.awt.Rectangle damaged;
+    /** Number of open beginUpdate() calls */
+    private int updateDepth;
+    /** Shapes hidden every other blink period */
+    private Set<Object> blinking;
+    /** Whether blinking shapes are currently shown */
+    private boolean blinkOn = true;
+    private javax.swing.Timer frameTimer;
 
     /**
      * Private constructor for the singleton pattern.
@@ -57,34 +77,83 @@ public class Canvas {
         canvas.setPreferredSize(new Dimension(width, height));
         backgroundColour = bgColour;
         frame.pack();
-        objects = new ArrayList<Object>();
-        shapes = new HashMap<Object, ShapeDescription>();
+        shapes = new LinkedHashMap<Object, ShapeDescription>();
+        blinking = new HashSet<Object>();
+        frameTimer = new javax.swing.Timer(FRAME_MILLIS, e -> frame());
     }
 
     // ... (El resto de los métodos de Canvas no cambian)
     public void setVisible(boolean visible){
-        if(graphic == null) {
-            Dimension size = canvas.getSize();
-            canvasImage = canvas.createImage(size.width, size.height);
-            graphic = (Graphics2D)canvasImage.getGraphics();
-            graphic.setColor(backgroundColour);
-            graphic.fillRect(0, 0, size.width, size.height);
-            graphic.setColor(Color.black);
+        synchronized (this) {
+            if(graphic == null) {
+                Dimension size = canvas.getSize();
+                canvasImage = canvas.createImage(size.width, size.height);
+                graphic = (Graphics2D)canvasImage.getGraphics();
+                graphic.setColor(backgroundColour);
+                graphic.fillRect(0, 0, size.width, size.height);
+                graphic.setColor(Color.black);
+            }
         }
         frame.setVisible(visible);
     }
 
-    public void draw(Object referenceObject, String color, Shape shape){
-        objects.remove(referenceObject);
-        objects.add(referenceObject);
-        shapes.put(referenceObject, new ShapeDescription(shape, color));
-        redraw();
+    /**
+     * Adds or replaces a shape. It appears on screen in the next frame.
+     */
+    public synchronized void draw(Object referenceObject, String color, Shape shape){
+        ShapeDescription old = shapes.remove(referenceObject);
+        if (old != null) {
+            damage(old.bounds);
+        }
+        ShapeDescription description = new ShapeDescription(shape, color);
+        shapes.put(referenceObject, description);
+        damage(description.bounds);
     }
  
-    public void erase(Object referenceObject){
-        objects.remove(referenceObject);
-        shapes.remove(referenceObject);
-        redraw();
+    /**
+     * Removes a shape from the screen. A blinking shape keeps blinking when it
+     * is drawn again; only setBlinking(false) stops it.
+     */
+    public synchronized void erase(Object referenceObject){
+        ShapeDescription old = shapes.remove(referenceObject);
+        if (old != null) {
+            damage(old.bounds);
+        }
+    }
+
+    /**
+     * Starts or stops blinking a shape, driven by the frame clock.
+     */
+    public synchronized void setBlinking(Object referenceObject, boolean blink){
+        boolean changed = blink ? blinking.add(referenceObject) : blinking.remove(referenceObject);
+        ShapeDescription description = shapes.get(referenceObject);
+        if (changed && description != null && !blinkOn) {
+            damage(description.bounds);
+        }
+        if (!blinking.isEmpty() && !frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+
+    public synchronized boolean isBlinking(Object referenceObject){
+        return blinking.contains(referenceObject);
+    }
+
+    /**
+     * Starts a batch of changes: no frame is painted until the matching
+     * commitUpdate() call. Batches may be nested.
+     */
+    public synchronized void beginUpdate(){
+        updateDepth++;
+    }
+
+    /**
+     * Ends a batch of changes; the area they touched is painted in the next frame.
+     */
+    public synchronized void commitUpdate(){
+        if (updateDepth > 0) {
+            updateDepth--;
+        }
     }
 
     public void setForegroundColor(String colorString){
@@ -114,19 +183,66 @@ public class Canvas {
         }
     }
 
+    private void damage(java.awt.Rectangle bounds){
+        if (damaged == null) {
+            damaged = new java.awt.Rectangle(bounds);
+        } else {
+            damaged.add(bounds);
+        }
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+    }
+
+    /**
+     * Runs on every tick of the frame timer: advances the blink phase and
+     * paints what changed since the previous frame.
+     */
+    private synchronized void frame(){
+        boolean on = (System.currentTimeMillis() / BLINK_MILLIS) % 2 == 0;
+        if (on != blinkOn) {
+            blinkOn = on;
+            for (Object referenceObject : blinking) {
+                ShapeDescription description = shapes.get(referenceObject);
+                if (description != null) {
+                    damage(description.bounds);
+                }
+            }
+        }
+        redraw();
+        if (damaged == null && blinking.isEmpty()) {
+            frameTimer.stop();
+        }
+    }
+
+    /**
+     * Repaints only the damaged area: it is cleared and every shape that
+     * overlaps it is painted again, in order.
+     */
     private void redraw(){
-        erase();
-        for(Iterator i=objects.iterator(); i.hasNext(); ) {
-            shapes.get(i.next()).draw(graphic);
+        if (updateDepth > 0 || damaged == null || graphic == null) {
+            return;
+        }
+        java.awt.Rectangle area = damaged;
+        damaged = null;
+        Shape clip = graphic.getClip();
+        graphic.setClip(area);
+        erase(area);
+        for (Map.Entry<Object, ShapeDescription> entry : shapes.entrySet()) {
+            ShapeDescription description = entry.getValue();
+            boolean hidden = !blinkOn && blinking.contains(entry.getKey());
+            if (!hidden && description.bounds.intersects(area)) {
+                description.draw(graphic);
+            }
         }
-        canvas.repaint();
+        graphic.setClip(clip);
+        canvas.repaint(area);
     }
     
-    private void erase(){
+    private void erase(java.awt.Rectangle area){
         Color original = graphic.getColor();
         graphic.setColor(backgroundColour);
-        Dimension size = canvas.getSize();
-        graphic.fill(new java.awt.Rectangle(0, 0, size.width, size.height));
+        graphic.fill(area);
         graphic.setColor(original);
     }
 
@@ -139,9 +255,13 @@ public class Canvas {
     private class ShapeDescription {
         private Shape shape;
         private String colorString;
+        /** Pixels covered by the shape, grown by one to include partial pixels */
+        private java.awt.Rectangle bounds;
         public ShapeDescription(Shape shape, String color) {
             this.shape = shape;
             colorString = color;
+            bounds = shape.getBounds();
+            bounds.grow(1, 1);
         }
         public void draw(Graphics2D graphic) {
             setForegroundColor(colorString);
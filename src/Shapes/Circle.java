@@ -26,7 +26,11 @@ public class Circle {
     }
 
     public void makeInvisible(){
-        erase();
+        if(isVisible) {
+            Canvas canvas = Canvas.getCanvas();
+            canvas.erase(this);
+            canvas.setBlinking(this, false);
+        }
         isVisible = false;
     }
 
@@ -36,7 +40,6 @@ public class Circle {
             canvas.draw(this, color,
                 new Ellipse2D.Double(xPosition, yPosition,
                 diameter, diameter));
-            canvas.wait(10);
         }
     }
 
@@ -65,6 +68,7 @@ public class Circle {
         for(int i = 0; i < distance; i++){
             xPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 
@@ -74,6 +78,7 @@ public class Circle {
         for(int i = 0; i < distance; i++){
             yPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 
@@ -95,6 +100,21 @@ public class Circle {
         draw();
     }
 
+    /**
+     * Makes the circle blink using the canvas frame clock.
+     */
+    public void startBlinking(){
+        Canvas.getCanvas().setBlinking(this, true);
+    }
+
+    public void stopBlinking(){
+        Canvas.getCanvas().setBlinking(this, false);
+    }
+
+    public boolean isBlinking(){
+        return Canvas.getCanvas().isBlinking(this);
+    }
+
     public int getDiameter(){ 
         return diameter; 
     }
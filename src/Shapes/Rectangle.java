@@ -37,7 +37,6 @@ public class Rectangle {
             canvas.draw(this, color,
                 new java.awt.Rectangle(xPosition, yPosition,
                                        width, height));
-            canvas.wait(10);
         }
     }
 
@@ -66,6 +65,7 @@ public class Rectangle {
         for(int i = 0; i < distance; i++){
             xPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 
@@ -75,6 +75,7 @@ public class Rectangle {
         for(int i = 0; i < distance; i++){
             yPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 
@@ -37,7 +37,6 @@ public class Triangle {
             int[] xpoints = { xPosition, xPosition + (width/2), xPosition - (width/2) };
             int[] ypoints = { yPosition, yPosition + height, yPosition + height };
             canvas.draw(this, color, new Polygon(xpoints, ypoints, 3));
-            canvas.wait(10);
         }
     }
 
@@ -66,6 +65,7 @@ public class Triangle {
         for(int i = 0; i < distance; i++){
             xPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 
@@ -75,6 +75,7 @@ public class Triangle {
         for(int i = 0; i < distance; i++){
             yPosition += delta;
             draw();
+            Canvas.getCanvas().wait(Canvas.FRAME_MILLIS);
         }
     }
 